@@ -0,0 +1,148 @@
+package com.ashishdas.example.swipeableitem;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import com.ashishdas.example.swipeableitem.layout.SwipeableLayout;
+import com.ashishdas.example.swipeableitem.layout.SwipeableLayoutBinderHelper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Adapters and binder helpers that outlive their views must not keep the views, nor their Context, alive.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AdapterChurnLeakTest
+{
+	private static final int ADAPTERS = 20;
+	private static final int LAYOUTS = 500;
+
+	private Instrumentation instrumentation;
+	private Context context;
+
+	@Before
+	public void setUp()
+	{
+		instrumentation = InstrumentationRegistry.getInstrumentation();
+		context = new ContextThemeWrapper(instrumentation.getTargetContext(), R.style.AppTheme);
+	}
+
+	@Test
+	public void adaptersOutlivingTheirListsReleaseTheViews() throws InterruptedException
+	{
+		final List<MyAdapter> adapters = new ArrayList<>();
+		final List<WeakReference<Object>> released = new ArrayList<>();
+
+		instrumentation.runOnMainSync(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (int i = 0; i < ADAPTERS; i++)
+				{
+					final Context listContext = new ContextThemeWrapper(context, R.style.AppTheme);
+					final MyAdapter adapter = new MyAdapter(SwipeableLayout.DragEdge.RIGHT, items());
+					final RecyclerView list = new RecyclerView(listContext);
+					list.setLayoutManager(new LinearLayoutManager(listContext));
+					list.setAdapter(adapter);
+					list.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+							View.MeasureSpec.makeMeasureSpec(1920, View.MeasureSpec.EXACTLY));
+					list.layout(0, 0, 1080, 1920);
+					assertTrue(list.getChildCount() > 0);
+
+					released.add(new WeakReference<Object>(listContext));
+					released.add(new WeakReference<Object>(list));
+					for (int child = 0; child < list.getChildCount(); child++)
+					{
+						released.add(new WeakReference<Object>(list.getChildAt(child)));
+					}
+
+					// the list goes away with its screen, the adapter is kept, e.g. by a retained fragment
+					list.setAdapter(null);
+					adapters.add(adapter);
+				}
+			}
+		});
+
+		assertReleased(released);
+		assertEquals(ADAPTERS, adapters.size());
+	}
+
+	@Test
+	public void layoutsThatAreNeverUnboundAreReleased() throws InterruptedException
+	{
+		final SwipeableLayoutBinderHelper helper = new SwipeableLayoutBinderHelper();
+		final List<WeakReference<Object>> released = new ArrayList<>();
+
+		instrumentation.runOnMainSync(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				final LayoutInflater inflater = LayoutInflater.from(context);
+				for (int i = 0; i < LAYOUTS; i++)
+				{
+					final SwipeableLayout layout = (SwipeableLayout) inflater.inflate(R.layout.item_swipe, null, false);
+					helper.bind(layout, i);
+					if (i % 2 == 0)
+					{
+						helper.openLayout(i);
+					}
+					released.add(new WeakReference<Object>(layout));
+				}
+			}
+		});
+
+		assertReleased(released);
+
+		// the row states outlive the layouts
+		assertEquals(LAYOUTS / 2, helper.getRetainedStateCount());
+	}
+
+	private static ArrayList<String> items()
+	{
+		final ArrayList<String> items = new ArrayList<>();
+		for (int i = 0; i < 50; i++)
+		{
+			items.add("Item " + i);
+		}
+		return items;
+	}
+
+	private static void assertReleased(List<WeakReference<Object>> references) throws InterruptedException
+	{
+		int alive = references.size();
+		for (int attempt = 0; attempt < 20 && alive > 0; attempt++)
+		{
+			Runtime.getRuntime().gc();
+			System.runFinalization();
+			Thread.sleep(50);
+
+			alive = 0;
+			for (WeakReference<Object> reference : references)
+			{
+				if (reference.get() != null)
+				{
+					alive++;
+				}
+			}
+		}
+		assertEquals("objects still reachable", 0, alive);
+	}
+}
@@ -0,0 +1,109 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import android.os.Debug;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import com.ashishdas.example.swipeableitem.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Once every layout was bound, the tables are sized and the listener is installed, recycling rows
+ * through {@link SwipeableLayoutBinderHelper} does not allocate.
+ */
+@RunWith(AndroidJUnit4.class)
+@SuppressWarnings("deprecation")
+public class BindAllocationTest
+{
+	private static final int WIDTH = 1080;
+	private static final int HEIGHT = 200;
+
+	// layouts alive in the pool, as a list keeps about one screen of rows
+	private static final int LAYOUTS = 12;
+	private static final int ROWS = 500;
+
+	@Test
+	public void steadyStateRebindingDoesNotAllocate()
+	{
+		InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				final SwipeableLayoutBinderHelper helper = new SwipeableLayoutBinderHelper();
+				helper.setOpenOnlyOne(true);
+				final SwipeableLayout[] layouts = inflateRows();
+
+				// a few open and locked rows, so both branches of bind() run
+				helper.openLayouts(3, 40, 250);
+				helper.lockSwipe(7, 41);
+
+				// warm up: inflates the secondary views and grows every table to its final size
+				scroll(helper, layouts);
+				scroll(helper, layouts);
+
+				Debug.resetThreadAllocCount();
+				Debug.startAllocCounting();
+				try
+				{
+					scroll(helper, layouts);
+				}
+				finally
+				{
+					Debug.stopAllocCounting();
+				}
+				assertEquals("allocations while rebinding", 0, Debug.getThreadAllocCount());
+
+				// make sure the counter was live, the assertion above would pass trivially otherwise
+				Debug.resetThreadAllocCount();
+				Debug.startAllocCounting();
+				final Object probe = new Object[LAYOUTS];
+				Debug.stopAllocCounting();
+				assertTrue(probe != null && Debug.getThreadAllocCount() > 0);
+			}
+		});
+	}
+
+	/**
+	 * Scroll through all rows the way a list recycles its views: a layout is unbound from the row that
+	 * left the screen and bound to the row that entered it.
+	 */
+	private static void scroll(SwipeableLayoutBinderHelper helper, SwipeableLayout[] layouts)
+	{
+		for (int row = 0; row < ROWS; row++)
+		{
+			final SwipeableLayout layout = layouts[row % LAYOUTS];
+			if (layout.isBound())
+			{
+				helper.unbind(layout);
+			}
+			helper.bind(layout, row);
+		}
+	}
+
+	private static SwipeableLayout[] inflateRows()
+	{
+		final ContextThemeWrapper context = new ContextThemeWrapper(
+				InstrumentationRegistry.getInstrumentation().getTargetContext(), R.style.AppTheme);
+		final LayoutInflater inflater = LayoutInflater.from(context);
+
+		final SwipeableLayout[] layouts = new SwipeableLayout[LAYOUTS];
+		for (int i = 0; i < LAYOUTS; i++)
+		{
+			final SwipeableLayout layout = (SwipeableLayout) inflater.inflate(R.layout.item_swipe, null, false);
+			layout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+					View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+			layout.layout(0, 0, WIDTH, HEIGHT);
+			layouts[i] = layout;
+		}
+		return layouts;
+	}
+}
@@ -0,0 +1,104 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import com.ashishdas.example.swipeableitem.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Rebinding a recycled layout is a fixed number of hash probes, so the time per bind stays flat while
+ * the number of bound ids, retained states and registered layouts grows by two orders of magnitude.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BindBenchmarkTest
+{
+	private static final String TAG = "BindBenchmarkTest";
+	private static final int WIDTH = 1080;
+	private static final int HEIGHT = 200;
+
+	private static final int[] ROWS = {1000, 10000, 100000};
+
+	// layouts alive per row, the registry grows along with the rows
+	private static final int ROWS_PER_LAYOUT = 100;
+
+	// generous, timings on a device are noisy, a linear scan would be about 100 times slower
+	private static final double MAX_SLOWDOWN = 5;
+
+	@Test
+	public void bindCostIsFlat()
+	{
+		InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				final double[] nanosPerBind = new double[ROWS.length];
+				for (int i = 0; i < ROWS.length; i++)
+				{
+					nanosPerBind[i] = measureBind(ROWS[i]);
+					Log.i(TAG, ROWS[i] + " ids, " + ROWS[i] / ROWS_PER_LAYOUT + " layouts: "
+							+ Math.round(nanosPerBind[i]) + " ns per bind");
+				}
+
+				final double slowdown = nanosPerBind[ROWS.length - 1] / nanosPerBind[0];
+				assertTrue("bind " + slowdown + " times slower", slowdown <= MAX_SLOWDOWN);
+			}
+		});
+	}
+
+	/**
+	 * @return average time of one bind while every row is bound once, after a warm-up pass.
+	 */
+	private static double measureBind(int rows)
+	{
+		final SwipeableLayoutBinderHelper helper = new SwipeableLayoutBinderHelper();
+		final SwipeableLayout[] layouts = inflateRows(rows / ROWS_PER_LAYOUT);
+
+		// every other row is open, so the state table holds half of the rows
+		for (long id = 0; id < rows; id += 2)
+		{
+			helper.openLayout(id);
+		}
+
+		scroll(helper, layouts, rows);
+
+		final long start = System.nanoTime();
+		scroll(helper, layouts, rows);
+		return (System.nanoTime() - start) / (double) rows;
+	}
+
+	private static void scroll(SwipeableLayoutBinderHelper helper, SwipeableLayout[] layouts, int rows)
+	{
+		for (int row = 0; row < rows; row++)
+		{
+			helper.bind(layouts[row % layouts.length], row);
+		}
+	}
+
+	private static SwipeableLayout[] inflateRows(int count)
+	{
+		final ContextThemeWrapper context = new ContextThemeWrapper(
+				InstrumentationRegistry.getInstrumentation().getTargetContext(), R.style.AppTheme);
+		final LayoutInflater inflater = LayoutInflater.from(context);
+
+		final SwipeableLayout[] layouts = new SwipeableLayout[count];
+		for (int i = 0; i < count; i++)
+		{
+			final SwipeableLayout layout = (SwipeableLayout) inflater.inflate(R.layout.item_swipe, null, false);
+			layout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+					View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+			layout.layout(0, 0, WIDTH, HEIGHT);
+			layouts[i] = layout;
+		}
+		return layouts;
+	}
+}
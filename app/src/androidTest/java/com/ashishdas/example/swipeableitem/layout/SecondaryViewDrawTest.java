@@ -0,0 +1,90 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import com.ashishdas.example.swipeableitem.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The secondary view of item_swipe is only drawn once the opaque main view uncovers it.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SecondaryViewDrawTest
+{
+	private static final int WIDTH = 1080;
+	private static final int HEIGHT = 200;
+
+	@Test
+	public void rowWithoutParentMeasures()
+	{
+		InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				// inflated with a null root, the layout has no LayoutParams
+				final SwipeableLayout layout = inflateRow();
+				assertEquals(WIDTH, layout.getMeasuredWidth());
+				assertEquals(HEIGHT, layout.getMeasuredHeight());
+
+				// View.measure skips onMeasure for an unchanged spec unless a layout is forced
+				layout.forceLayout();
+				measure(layout);
+				assertEquals(1, layout.getMeasureCacheHitCount());
+			}
+		});
+	}
+
+	@Test
+	public void closedRowsSkipTheSecondaryView()
+	{
+		InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				final SwipeableLayout layout = inflateRow();
+				final Canvas canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+
+				// a closed row with an inflated secondary view, it is covered by the main view
+				layout.open(false);
+				layout.close(false);
+				layout.draw(canvas);
+				assertEquals(0, layout.getSecondaryDrawCount());
+				assertEquals(1, layout.getSecondaryDrawSkipCount());
+
+				layout.open(false);
+				layout.draw(canvas);
+				assertEquals(1, layout.getSecondaryDrawCount());
+				assertEquals(1, layout.getSecondaryDrawSkipCount());
+			}
+		});
+	}
+
+	private static SwipeableLayout inflateRow()
+	{
+		final ContextThemeWrapper context = new ContextThemeWrapper(
+				InstrumentationRegistry.getInstrumentation().getTargetContext(), R.style.AppTheme);
+		final SwipeableLayout layout = (SwipeableLayout) LayoutInflater.from(context).inflate(R.layout.item_swipe, null, false);
+
+		measure(layout);
+		layout.layout(0, 0, WIDTH, HEIGHT);
+		return layout;
+	}
+
+	private static void measure(SwipeableLayout layout)
+	{
+		layout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+				View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+	}
+}
@@ -0,0 +1,226 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Swipes rows of a laid out {@link RecyclerView} through {@link SwipeItemController} with synthetic touch
+ * events. Releases are slow, so the position alone decides between open, close and full swipe.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SwipeItemControllerTest
+{
+	private static final int WIDTH = 1080;
+	private static final int ROW_HEIGHT = 200;
+	private static final int ROWS = 5;
+	private static final int MENU_WIDTH = 200;
+	private static final int TOUCH_SLOP = 8;
+
+	// no release is fast enough to count as a fling
+	private static final int MIN_FLING_VELOCITY_DP = 100000;
+	private static final long EVENT_INTERVAL_MS = 50;
+
+	private RecyclerView mRecyclerView;
+	private RecordingListener mListener;
+
+	@Before
+	public void setUp()
+	{
+		InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+				final SwipeConfig config = new SwipeConfig.Builder(context)
+						.setTouchSlop(TOUCH_SLOP)
+						.setMinFlingVelocityDp(MIN_FLING_VELOCITY_DP)
+						.build();
+
+				mListener = new RecordingListener();
+				mRecyclerView = new RecyclerView(context);
+				mRecyclerView.setLayoutManager(new LinearLayoutManager(context));
+				mRecyclerView.setAdapter(new RowAdapter());
+
+				final SwipeItemController controller = new SwipeItemController(config,
+						SwipeableLayout.DragEdge.RIGHT, MENU_WIDTH, null, mListener);
+				controller.attachToRecyclerView(mRecyclerView);
+
+				mRecyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+						View.MeasureSpec.makeMeasureSpec(ROW_HEIGHT * ROWS, View.MeasureSpec.EXACTLY));
+				mRecyclerView.layout(0, 0, WIDTH, ROW_HEIGHT * ROWS);
+			}
+		});
+	}
+
+	@Test
+	public void halfSwipeOpensTheRow()
+	{
+		final View row = swipe(1, MENU_WIDTH * 3 / 4);
+
+		assertEquals(1, mListener.mHalfSwipeCount);
+		assertTrue(mListener.mLastHalfSwipeOpened);
+		assertEquals(1, mListener.mLastHalfSwipePosition);
+		assertNull(mListener.mFullSwipeHolder);
+		assertSettles(row, -MENU_WIDTH);
+	}
+
+	@Test
+	public void shortSwipeClosesTheRow()
+	{
+		final View row = swipe(2, MENU_WIDTH / 4);
+
+		assertEquals(1, mListener.mHalfSwipeCount);
+		assertFalse(mListener.mLastHalfSwipeOpened);
+		assertEquals(2, mListener.mLastHalfSwipePosition);
+		assertSettles(row, 0);
+	}
+
+	@Test
+	public void fullSwipeIsReportedOnceTheRowLeaves() throws InterruptedException
+	{
+		final View row = swipe(3, WIDTH * 3 / 4);
+
+		assertEquals(0, mListener.mHalfSwipeCount);
+		assertTrue("no full swipe", mListener.mFullSwipe.await(2, TimeUnit.SECONDS));
+		assertNotNull(mListener.mFullSwipeHolder);
+		assertEquals(3, mListener.mFullSwipeHolder.getAdapterPosition());
+
+		// the row slides back once the full swipe is reported
+		assertSettles(row, 0);
+	}
+
+	/**
+	 * Drag a row towards the left by {@code distance} px past the touch slop and release it slowly.
+	 *
+	 * @return the swiped row.
+	 */
+	private View swipe(final int position, final int distance)
+	{
+		final View[] row = new View[1];
+		InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				row[0] = mRecyclerView.getChildAt(position);
+				final float y = row[0].getTop() + ROW_HEIGHT / 2f;
+				final float startX = WIDTH - 40;
+
+				// the drag starts where the touch leaves the slop, the distance is counted from there
+				final float dragX = startX - TOUCH_SLOP - 1;
+				final long downTime = SystemClock.uptimeMillis();
+
+				long time = downTime;
+				dispatch(downTime, time, MotionEvent.ACTION_DOWN, startX, y);
+				time += EVENT_INTERVAL_MS;
+				dispatch(downTime, time, MotionEvent.ACTION_MOVE, dragX, y);
+
+				final int steps = 10;
+				for (int i = 1; i <= steps; i++)
+				{
+					time += EVENT_INTERVAL_MS;
+					dispatch(downTime, time, MotionEvent.ACTION_MOVE, dragX - distance * i / (float) steps, y);
+				}
+
+				// hold still before lifting, so the release carries no velocity
+				time += EVENT_INTERVAL_MS;
+				dispatch(downTime, time, MotionEvent.ACTION_MOVE, dragX - distance, y);
+				time += EVENT_INTERVAL_MS;
+				dispatch(downTime, time, MotionEvent.ACTION_UP, dragX - distance, y);
+			}
+		});
+		return row[0];
+	}
+
+	private void dispatch(long downTime, long eventTime, int action, float x, float y)
+	{
+		final MotionEvent event = MotionEvent.obtain(downTime, eventTime, action, x, y, 0);
+		mRecyclerView.dispatchTouchEvent(event);
+		event.recycle();
+	}
+
+	private static void assertSettles(final View row, float translation)
+	{
+		final long timeout = SystemClock.uptimeMillis() + 2000;
+		while (row.getTranslationX() != translation && SystemClock.uptimeMillis() < timeout)
+		{
+			SystemClock.sleep(20);
+		}
+		assertEquals(translation, row.getTranslationX(), 0);
+	}
+
+	private static class RecordingListener implements SwipeItemController.OnItemSwipeListener
+	{
+		private final CountDownLatch mFullSwipe = new CountDownLatch(1);
+
+		private volatile int mHalfSwipeCount;
+		private volatile boolean mLastHalfSwipeOpened;
+		private volatile int mLastHalfSwipePosition = RecyclerView.NO_POSITION;
+		private volatile RecyclerView.ViewHolder mFullSwipeHolder;
+
+		@Override
+		public void onHalfSwipe(RecyclerView.ViewHolder holder, boolean isOpened)
+		{
+			mHalfSwipeCount++;
+			mLastHalfSwipeOpened = isOpened;
+			mLastHalfSwipePosition = holder.getAdapterPosition();
+		}
+
+		@Override
+		public void onFullSwipe(RecyclerView.ViewHolder holder)
+		{
+			mFullSwipeHolder = holder;
+			mFullSwipe.countDown();
+		}
+
+		@Override
+		public void onMenuClick(RecyclerView.ViewHolder holder, int menuX)
+		{
+		}
+	}
+
+	private static class RowAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
+	{
+		@Override
+		public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType)
+		{
+			final View view = new View(parent.getContext());
+			view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_HEIGHT));
+			return new RecyclerView.ViewHolder(view)
+			{
+			};
+		}
+
+		@Override
+		public void onBindViewHolder(RecyclerView.ViewHolder holder, int position)
+		{
+		}
+
+		@Override
+		public int getItemCount()
+		{
+			return ROWS;
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import android.os.Bundle;
+import android.os.Parcel;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Saved states are two packed primitive arrays, so the parcel stays at about 9 bytes per open row.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SwipeStatesBundleTest
+{
+	private static final String TAG = "SwipeStatesBundleTest";
+	private static final int ROWS = 100000;
+
+	// bundle keys, array headers and the parcel header
+	private static final int PARCEL_OVERHEAD = 1024;
+
+	@Test
+	public void manyOpenRowsParcelCompactly()
+	{
+		final SwipeableLayoutBinderHelper helper = new SwipeableLayoutBinderHelper();
+		helper.openLayoutRange(0, ROWS);
+
+		final long saveStart = System.nanoTime();
+		final Bundle outState = new Bundle();
+		helper.saveStates(outState);
+
+		final Parcel parcel = Parcel.obtain();
+		try
+		{
+			outState.writeToParcel(parcel, 0);
+			final long saveNanos = System.nanoTime() - saveStart;
+			final int size = parcel.dataSize();
+
+			assertTrue("parcel size " + size, size <= ROWS * (8 + 1) + PARCEL_OVERHEAD);
+
+			parcel.setDataPosition(0);
+			final Bundle inState = parcel.readBundle(getClass().getClassLoader());
+
+			final long restoreStart = System.nanoTime();
+			final SwipeableLayoutBinderHelper restored = new SwipeableLayoutBinderHelper();
+			restored.restoreStates(inState);
+			final long restoreNanos = System.nanoTime() - restoreStart;
+
+			assertEquals(ROWS, restored.getRetainedStateCount());
+			restored.closeLayout(ROWS - 1);
+			assertEquals(ROWS - 1, restored.getRetainedStateCount());
+
+			Log.i(TAG, ROWS + " rows: " + size + " bytes, save " + saveNanos / 1000000 + " ms, restore "
+					+ restoreNanos / 1000000 + " ms");
+		}
+		finally
+		{
+			parcel.recycle();
+		}
+	}
+}
@@ -6,11 +6,13 @@ import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewStub;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import com.ashishdas.example.swipeableitem.layout.SwipeableLayout;
 import com.ashishdas.example.swipeableitem.layout.SwipeableLayoutBinderHelper;
+import com.ashishdas.example.swipeableitem.layout.SwipeMenuRenderer;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -23,6 +25,9 @@ public class MyAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 	private List<String> mArrayList;
 	private final SwipeableLayoutBinderHelper mBinderhelper;
 
+	// all rows share the same menu, drawn from one bitmap until a row is opened
+	private SwipeMenuRenderer mMenuRenderer;
+
 	public MyAdapter(SwipeableLayout.DragEdge dragEdge, ArrayList<String> arrayList)
 	{
 		mArrayList = arrayList;
@@ -34,6 +39,11 @@ public class MyAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 	@Override
 	public final RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType)
 	{
+		if (mMenuRenderer == null)
+		{
+			mMenuRenderer = new SwipeMenuRenderer(parent.getContext(), R.layout.item_swipe_secondary);
+		}
+
 		View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_swipe, parent, false);
 		return new ViewHolder(view);
 	}
@@ -42,10 +52,34 @@ public class MyAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 	public final void onBindViewHolder(RecyclerView.ViewHolder holder, final int position)
 	{
 		ViewHolder viewHolder = (ViewHolder) holder;
-		mBinderhelper.bind(viewHolder.swipeLayout, position + "");
+		mBinderhelper.bind(viewHolder.swipeLayout, position);
 		viewHolder.bind(mArrayList.get(position));
 	}
 
+	@Override
+	public void onAttachedToRecyclerView(RecyclerView recyclerView)
+	{
+		super.onAttachedToRecyclerView(recyclerView);
+		mBinderhelper.attachToRecyclerView(recyclerView);
+	}
+
+	@Override
+	public void onDetachedFromRecyclerView(RecyclerView recyclerView)
+	{
+		super.onDetachedFromRecyclerView(recyclerView);
+		mBinderhelper.attachToRecyclerView(null);
+
+		// the menu view was inflated with the context of the list, do not keep it beyond the list
+		mMenuRenderer = null;
+	}
+
+	@Override
+	public void onViewRecycled(RecyclerView.ViewHolder holder)
+	{
+		super.onViewRecycled(holder);
+		mBinderhelper.unbind(((ViewHolder) holder).swipeLayout);
+	}
+
 	@Override
 	public int getItemCount()
 	{
@@ -76,7 +110,8 @@ public class MyAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 		mBinderhelper.restoreStates(inState);
 	}
 
-	public class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener, SwipeableLayout.OnSwipeListener
+	public class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener, SwipeableLayout.OnSwipeListener,
+			ViewStub.OnInflateListener
 	{
 		private SwipeableLayout swipeLayout;
 		private TextView textView;
@@ -88,22 +123,46 @@ public class MyAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 			swipeLayout = (SwipeableLayout) view.findViewById(R.id.swipeLayout);
 			swipeLayout.setDragEdge(mDragEdge);
 			textView = (TextView) view.findViewById(R.id.textView);
-			menuOption1 = view.findViewById(R.id.iv_menu_option1);
-			menuOption2 = view.findViewById(R.id.iv_menu_option2);
+
+			// installed once, bind() only updates the content
+			swipeLayout.setOnSwipeListener(this);
+			swipeLayout.setMenuRenderer(mMenuRenderer);
+
+			// the menu is inflated by swipeLayout when the row is first dragged or opened
+			ViewStub secondaryStub = (ViewStub) view.findViewById(R.id.secondaryStub);
+			if (secondaryStub != null)
+			{
+				secondaryStub.setOnInflateListener(this);
+			}
+			else
+			{
+				onInflate(null, view);
+			}
 		}
 
-		public void bind(String txt)
+		@Override
+		public void onInflate(ViewStub stub, View inflated)
 		{
-			swipeLayout.setOnSwipeListener(this);
-			menuOption1.setOnClickListener(null);
-			menuOption2.setOnClickListener(null);
+			menuOption1 = inflated.findViewById(R.id.iv_menu_option1);
+			menuOption2 = inflated.findViewById(R.id.iv_menu_option2);
+			menuOption1.setOnClickListener(this);
+			menuOption2.setOnClickListener(this);
+		}
 
+		public void bind(String txt)
+		{
 			textView.setText(txt);
 		}
 
 		@Override
 		public void onClick(final View v)
 		{
+			// menu options only react once the row is fully opened
+			if (!swipeLayout.isOpened())
+			{
+				return;
+			}
+
 			switch (v.getId())
 			{
 				case R.id.iv_menu_option1:
@@ -120,18 +179,19 @@ public class MyAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 		@Override
 		public void onHalfSwipe(final SwipeableLayout view, final boolean isOpened)
 		{
-			Log.i(LOG_TAG, "onHalfSwipe - isOpened "+isOpened);
-			if(isOpened)
+			if (BuildConfig.DEBUG)
 			{
-				menuOption1.setOnClickListener(this);
-				menuOption2.setOnClickListener(this);
+				Log.i(LOG_TAG, "onHalfSwipe - isOpened " + isOpened);
 			}
 		}
 
 		@Override
 		public void onFullSwipe(final SwipeableLayout view)
 		{
-			Log.i(LOG_TAG, "onFullSwipe");
+			if (BuildConfig.DEBUG)
+			{
+				Log.i(LOG_TAG, "onFullSwipe");
+			}
 			mBinderhelper.closeAll();
 		}
 	}
@@ -0,0 +1,83 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import java.util.Arrays;
+
+/**
+ * Primitive long to byte map, no boxing and no allocation except when the table grows.
+ */
+class LongByteHashMap extends LongHashTable
+{
+	private byte[] mValues;
+
+	LongByteHashMap(int expectedSize)
+	{
+		super(expectedSize);
+		mValues = new byte[capacity()];
+	}
+
+	public byte get(long key, byte defaultValue)
+	{
+		final int slot = find(key);
+		return slot >= 0 ? mValues[slot] : defaultValue;
+	}
+
+	public void put(long key, byte value)
+	{
+		// insert first, it may replace mValues when the table grows
+		final int slot = insert(key);
+		mValues[slot] = value;
+	}
+
+	public boolean remove(long key)
+	{
+		final int slot = find(key);
+		if (slot < 0)
+		{
+			return false;
+		}
+		removeAt(slot);
+		return true;
+	}
+
+	public byte valueAt(int slot)
+	{
+		return mValues[slot];
+	}
+
+	public void setValueAt(int slot, byte value)
+	{
+		mValues[slot] = value;
+	}
+
+	@Override
+	void moveValue(int from, int to)
+	{
+		mValues[to] = mValues[from];
+	}
+
+	@Override
+	void clearValue(int slot)
+	{
+		mValues[slot] = 0;
+	}
+
+	@Override
+	void clearValues()
+	{
+		Arrays.fill(mValues, (byte) 0);
+	}
+
+	@Override
+	void relocateValues(int[] newSlots, int newCapacity)
+	{
+		final byte[] values = new byte[newCapacity];
+		for (int i = 0; i < newSlots.length; i++)
+		{
+			if (newSlots[i] >= 0)
+			{
+				values[newSlots[i]] = mValues[i];
+			}
+		}
+		mValues = values;
+	}
+}
@@ -0,0 +1,61 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+/**
+ * Primitive long set, no boxing and no allocation except when the table grows.
+ */
+class LongHashSet extends LongHashTable
+{
+	LongHashSet(int expectedSize)
+	{
+		super(expectedSize);
+	}
+
+	public boolean contains(long key)
+	{
+		return containsKey(key);
+	}
+
+	/**
+	 * @return true if the key was not already present.
+	 */
+	public boolean add(long key)
+	{
+		final int sizeBefore = size();
+		insert(key);
+		return size() != sizeBefore;
+	}
+
+	/**
+	 * @return true if the key was present.
+	 */
+	public boolean remove(long key)
+	{
+		final int slot = find(key);
+		if (slot < 0)
+		{
+			return false;
+		}
+		removeAt(slot);
+		return true;
+	}
+
+	@Override
+	void moveValue(int from, int to)
+	{
+	}
+
+	@Override
+	void clearValue(int slot)
+	{
+	}
+
+	@Override
+	void clearValues()
+	{
+	}
+
+	@Override
+	void relocateValues(int[] newSlots, int newCapacity)
+	{
+	}
+}
@@ -0,0 +1,186 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table keyed by primitive longs (linear probing, backward-shift deletion).
+ * Subclasses keep their values in arrays parallel to the key slots. Not thread-safe.
+ */
+abstract class LongHashTable
+{
+	private static final int MIN_CAPACITY = 8;
+
+	private long[] mKeys;
+	private boolean[] mUsed;
+	private int mSize;
+	private int mMask;
+	private int mResizeAt;
+
+	LongHashTable(int expectedSize)
+	{
+		int capacity = MIN_CAPACITY;
+		while (capacity * 3 / 4 < expectedSize)
+		{
+			capacity <<= 1;
+		}
+		setCapacity(capacity);
+	}
+
+	public int size()
+	{
+		return mSize;
+	}
+
+	public boolean isEmpty()
+	{
+		return mSize == 0;
+	}
+
+	public boolean containsKey(long key)
+	{
+		return find(key) >= 0;
+	}
+
+	/**
+	 * @return number of slots, to be used together with {@link #isSlotUsed(int)} and {@link #keyAt(int)}
+	 * for allocation-free iteration.
+	 */
+	public int capacity()
+	{
+		return mKeys.length;
+	}
+
+	public boolean isSlotUsed(int slot)
+	{
+		return mUsed[slot];
+	}
+
+	public long keyAt(int slot)
+	{
+		return mKeys[slot];
+	}
+
+	public void clear()
+	{
+		Arrays.fill(mUsed, false);
+		mSize = 0;
+		clearValues();
+	}
+
+	/**
+	 * @return the slot holding the key, or the bitwise complement of the free slot where it would go.
+	 */
+	final int find(long key)
+	{
+		int slot = hash(key) & mMask;
+		while (mUsed[slot])
+		{
+			if (mKeys[slot] == key)
+			{
+				return slot;
+			}
+			slot = (slot + 1) & mMask;
+		}
+		return ~slot;
+	}
+
+	/**
+	 * @return the slot of the key, inserting it first if absent. A new slot always holds the default value.
+	 */
+	final int insert(long key)
+	{
+		int slot = find(key);
+		if (slot >= 0)
+		{
+			return slot;
+		}
+
+		if (mSize >= mResizeAt)
+		{
+			grow();
+			slot = find(key);
+		}
+
+		slot = ~slot;
+		mUsed[slot] = true;
+		mKeys[slot] = key;
+		mSize++;
+		return slot;
+	}
+
+	final void removeAt(int slot)
+	{
+		int gap = slot;
+		int next = (slot + 1) & mMask;
+
+		// shift back every entry of the probe chain that may legally fill the gap
+		while (mUsed[next])
+		{
+			final int home = hash(mKeys[next]) & mMask;
+			if (((next - home) & mMask) >= ((next - gap) & mMask))
+			{
+				mKeys[gap] = mKeys[next];
+				moveValue(next, gap);
+				gap = next;
+			}
+			next = (next + 1) & mMask;
+		}
+
+		mUsed[gap] = false;
+		clearValue(gap);
+		mSize--;
+	}
+
+	abstract void moveValue(int from, int to);
+
+	abstract void clearValue(int slot);
+
+	abstract void clearValues();
+
+	/**
+	 * Called after the keys have been rehashed into a table of {@code newCapacity} slots.
+	 *
+	 * @param newSlots new slot of every old slot, or -1 for an unused one.
+	 */
+	abstract void relocateValues(int[] newSlots, int newCapacity);
+
+	private void grow()
+	{
+		final long[] oldKeys = mKeys;
+		final boolean[] oldUsed = mUsed;
+		final int[] newSlots = new int[oldKeys.length];
+
+		setCapacity(oldKeys.length << 1);
+
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			if (oldUsed[i])
+			{
+				final int slot = ~find(oldKeys[i]);
+				mUsed[slot] = true;
+				mKeys[slot] = oldKeys[i];
+				newSlots[i] = slot;
+			}
+			else
+			{
+				newSlots[i] = -1;
+			}
+		}
+
+		relocateValues(newSlots, mKeys.length);
+	}
+
+	private void setCapacity(int capacity)
+	{
+		mKeys = new long[capacity];
+		mUsed = new boolean[capacity];
+		mMask = capacity - 1;
+		mResizeAt = capacity * 3 / 4;
+	}
+
+	private static int hash(long key)
+	{
+		final long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
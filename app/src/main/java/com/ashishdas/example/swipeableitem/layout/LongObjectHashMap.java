@@ -0,0 +1,84 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import java.util.Arrays;
+
+/**
+ * Primitive long keyed map of objects, no key boxing and no allocation except when the table grows.
+ */
+class LongObjectHashMap<V> extends LongHashTable
+{
+	private Object[] mValues;
+
+	LongObjectHashMap(int expectedSize)
+	{
+		super(expectedSize);
+		mValues = new Object[capacity()];
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(long key)
+	{
+		final int slot = find(key);
+		return slot >= 0 ? (V) mValues[slot] : null;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value)
+	{
+		final int slot = insert(key);
+		final V previous = (V) mValues[slot];
+		mValues[slot] = value;
+		return previous;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V remove(long key)
+	{
+		final int slot = find(key);
+		if (slot < 0)
+		{
+			return null;
+		}
+		final V previous = (V) mValues[slot];
+		removeAt(slot);
+		return previous;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V valueAt(int slot)
+	{
+		return (V) mValues[slot];
+	}
+
+	@Override
+	void moveValue(int from, int to)
+	{
+		mValues[to] = mValues[from];
+	}
+
+	@Override
+	void clearValue(int slot)
+	{
+		mValues[slot] = null;
+	}
+
+	@Override
+	void clearValues()
+	{
+		Arrays.fill(mValues, null);
+	}
+
+	@Override
+	void relocateValues(int[] newSlots, int newCapacity)
+	{
+		final Object[] values = new Object[newCapacity];
+		for (int i = 0; i < newSlots.length; i++)
+		{
+			if (newSlots[i] >= 0)
+			{
+				values[newSlots[i]] = mValues[i];
+			}
+		}
+		mValues = values;
+	}
+}
@@ -0,0 +1,85 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import java.util.Arrays;
+
+/**
+ * {@link LongByteHashMap} that also records when each entry was last written or touched, so that
+ * callers can evict the least recently used entries.
+ */
+class LruLongByteHashMap extends LongByteHashMap
+{
+	private long[] mStamps;
+	private long mClock = 0;
+
+	LruLongByteHashMap(int expectedSize)
+	{
+		super(expectedSize);
+		mStamps = new long[capacity()];
+	}
+
+	/**
+	 * Same as {@link #get(long, byte)}, and marks the entry as recently used.
+	 */
+	public byte getAndTouch(long key, byte defaultValue)
+	{
+		final int slot = find(key);
+		if (slot < 0)
+		{
+			return defaultValue;
+		}
+		mStamps[slot] = ++mClock;
+		return valueAt(slot);
+	}
+
+	@Override
+	public void put(long key, byte value)
+	{
+		super.put(key, value);
+		mStamps[find(key)] = ++mClock;
+	}
+
+	/**
+	 * @return access stamp of the slot, higher is more recent.
+	 */
+	public long stampAt(int slot)
+	{
+		return mStamps[slot];
+	}
+
+	@Override
+	void moveValue(int from, int to)
+	{
+		super.moveValue(from, to);
+		mStamps[to] = mStamps[from];
+	}
+
+	@Override
+	void clearValue(int slot)
+	{
+		super.clearValue(slot);
+		mStamps[slot] = 0;
+	}
+
+	@Override
+	void clearValues()
+	{
+		super.clearValues();
+		Arrays.fill(mStamps, 0);
+	}
+
+	@Override
+	void relocateValues(int[] newSlots, int newCapacity)
+	{
+		super.relocateValues(newSlots, newCapacity);
+
+		final long[] stamps = new long[newCapacity];
+		for (int i = 0; i < newSlots.length; i++)
+		{
+			if (newSlots[i] >= 0)
+			{
+				stamps[newSlots[i]] = mStamps[i];
+			}
+		}
+		mStamps = stamps;
+	}
+}
@@ -0,0 +1,123 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import android.content.Context;
+import android.util.DisplayMetrics;
+import android.view.ViewConfiguration;
+
+/**
+ * Immutable swipe thresholds, resolved to pixels once per display density. A single instance can be
+ * shared by every {@link SwipeableLayout} of a list, see {@link SwipeableLayoutBinderHelper#setSwipeConfig(SwipeConfig)}.
+ */
+public final class SwipeConfig
+{
+	public static final int DEFAULT_MIN_FLING_VELOCITY_DP = 300;
+	public static final float DEFAULT_FULL_SWIPE_RATIO = 1 / 2.2f;
+	public static final float DEFAULT_HALF_SWIPE_PIVOT_RATIO = 0.5f;
+
+	private static volatile SwipeConfig sDefault;
+
+	private final int mDensityDpi;
+	private final int mMinFlingVelocity;
+	private final float mFullSwipeRatio;
+	private final float mHalfSwipePivotRatio;
+	private final int mTouchSlop;
+
+	private SwipeConfig(Builder builder)
+	{
+		mDensityDpi = builder.mDensityDpi;
+		mMinFlingVelocity = Math.round(builder.mMinFlingVelocityDp * builder.mDensityDpi / (float) DisplayMetrics.DENSITY_DEFAULT);
+		mFullSwipeRatio = builder.mFullSwipeRatio;
+		mHalfSwipePivotRatio = builder.mHalfSwipePivotRatio;
+		mTouchSlop = builder.mTouchSlop;
+	}
+
+	/**
+	 * @return the default configuration for the display of the context, shared until the density changes.
+	 */
+	public static SwipeConfig getDefault(Context context)
+	{
+		SwipeConfig config = sDefault;
+		if (config == null || config.mDensityDpi != context.getResources().getDisplayMetrics().densityDpi)
+		{
+			config = new Builder(context).build();
+			sDefault = config;
+		}
+		return config;
+	}
+
+	/**
+	 * @return horizontal fling velocity, in px per second, above which a release opens or closes the layout.
+	 */
+	public int getMinFlingVelocity()
+	{
+		return mMinFlingVelocity;
+	}
+
+	/**
+	 * @return fraction of the layout width the leading edge of the main view has to cross for a full swipe.
+	 */
+	public float getFullSwipeRatio()
+	{
+		return mFullSwipeRatio;
+	}
+
+	/**
+	 * @return fraction of the secondary view that has to be uncovered for a release to open the layout.
+	 */
+	public float getHalfSwipePivotRatio()
+	{
+		return mHalfSwipePivotRatio;
+	}
+
+	/**
+	 * @return distance in px a touch can wander before it is treated as a drag.
+	 */
+	public int getTouchSlop()
+	{
+		return mTouchSlop;
+	}
+
+	public static class Builder
+	{
+		private final int mDensityDpi;
+		private int mMinFlingVelocityDp = DEFAULT_MIN_FLING_VELOCITY_DP;
+		private float mFullSwipeRatio = DEFAULT_FULL_SWIPE_RATIO;
+		private float mHalfSwipePivotRatio = DEFAULT_HALF_SWIPE_PIVOT_RATIO;
+		private int mTouchSlop;
+
+		public Builder(Context context)
+		{
+			mDensityDpi = context.getResources().getDisplayMetrics().densityDpi;
+			mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+		}
+
+		public Builder setMinFlingVelocityDp(int velocityDp)
+		{
+			mMinFlingVelocityDp = velocityDp;
+			return this;
+		}
+
+		public Builder setFullSwipeRatio(float ratio)
+		{
+			mFullSwipeRatio = ratio;
+			return this;
+		}
+
+		public Builder setHalfSwipePivotRatio(float ratio)
+		{
+			mHalfSwipePivotRatio = ratio;
+			return this;
+		}
+
+		public Builder setTouchSlop(int touchSlopPx)
+		{
+			mTouchSlop = touchSlopPx;
+			return this;
+		}
+
+		public SwipeConfig build()
+		{
+			return new SwipeConfig(this);
+		}
+	}
+}
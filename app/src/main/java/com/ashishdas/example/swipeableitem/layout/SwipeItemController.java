@@ -0,0 +1,467 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.graphics.Canvas;
+import android.support.v7.widget.RecyclerView;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+
+import java.util.HashMap;
+
+/**
+ * Swipe engine working on the {@link RecyclerView} itself instead of wrapping every row into a
+ * {@link SwipeableLayout}. Rows are used as they are and only translated, the uncovered action area is drawn
+ * from a {@link SwipeMenuRenderer}, so a row costs no extra ViewGroup and no extra measure / layout pass.
+ * Releases are decided by the same rules as {@link SwipeableLayout}. At most one row is open at a time.
+ */
+public class SwipeItemController extends RecyclerView.ItemDecoration
+		implements RecyclerView.OnItemTouchListener, RecyclerView.OnChildAttachStateChangeListener
+{
+	private static final int BASE_SETTLE_DURATION = 120;
+	private static final int MAX_SETTLE_DURATION = 300;
+
+	public interface OnItemSwipeListener
+	{
+		void onHalfSwipe(RecyclerView.ViewHolder holder, boolean isOpened);
+
+		void onFullSwipe(RecyclerView.ViewHolder holder);
+
+		/**
+		 * @param menuX x of the tap, relative to the left edge of the action area.
+		 */
+		void onMenuClick(RecyclerView.ViewHolder holder, int menuX);
+	}
+
+	private final SwipeableLayout.DragEdge mDragEdge;
+	private final int mMenuWidth;
+	private final SwipeMenuRenderer mMenuRenderer;
+	private final OnItemSwipeListener mListener;
+
+	private final int mTouchSlop;
+	private final int mMinFlingVelocity;
+	private final float mFullSwipeRatio;
+	private final float mHalfSwipePivotRatio;
+
+	private final HashMap<View, ValueAnimator> mRunningAnimations = new HashMap<>();
+
+	private RecyclerView mRecyclerView;
+	private VelocityTracker mVelocityTracker;
+
+	private View mTouchedView;
+	private View mDraggedView;
+	private View mMenuTapView;
+	private View mOpenView;
+	private boolean mGestureIgnored;
+	private float mDownX;
+	private float mDownY;
+	private float mStartTranslation;
+
+	/**
+	 * @param dragEdge     edge the action area is revealed at.
+	 * @param menuWidth    width of the action area in px.
+	 * @param menuRenderer draws the action area, may be null to leave it to the background of the list.
+	 */
+	public SwipeItemController(SwipeConfig config, SwipeableLayout.DragEdge dragEdge, int menuWidth,
+			SwipeMenuRenderer menuRenderer, OnItemSwipeListener listener)
+	{
+		mDragEdge = dragEdge;
+		mMenuWidth = menuWidth;
+		mMenuRenderer = menuRenderer;
+		mListener = listener;
+
+		mTouchSlop = config.getTouchSlop();
+		mMinFlingVelocity = config.getMinFlingVelocity();
+		mFullSwipeRatio = config.getFullSwipeRatio();
+		mHalfSwipePivotRatio = config.getHalfSwipePivotRatio();
+	}
+
+	public void attachToRecyclerView(RecyclerView recyclerView)
+	{
+		if (mRecyclerView == recyclerView)
+		{
+			return;
+		}
+
+		if (mRecyclerView != null)
+		{
+			detachFromRecyclerView();
+		}
+
+		mRecyclerView = recyclerView;
+		if (recyclerView != null)
+		{
+			recyclerView.addItemDecoration(this);
+			recyclerView.addOnItemTouchListener(this);
+			recyclerView.addOnChildAttachStateChangeListener(this);
+		}
+	}
+
+	public void detachFromRecyclerView()
+	{
+		if (mRecyclerView == null)
+		{
+			return;
+		}
+
+		mRecyclerView.removeItemDecoration(this);
+		mRecyclerView.removeOnItemTouchListener(this);
+		mRecyclerView.removeOnChildAttachStateChangeListener(this);
+
+		for (int i = mRecyclerView.getChildCount() - 1; i >= 0; i--)
+		{
+			resetRow(mRecyclerView.getChildAt(i));
+		}
+		resetGesture();
+		mOpenView = null;
+		mRecyclerView = null;
+	}
+
+	/**
+	 * Close the open row, if any.
+	 */
+	public void closeOpenItem(boolean animation)
+	{
+		if (mOpenView == null)
+		{
+			return;
+		}
+
+		final View view = mOpenView;
+		mOpenView = null;
+		if (animation)
+		{
+			settle(view, 0, false);
+		}
+		else
+		{
+			resetRow(view);
+			mRecyclerView.invalidate();
+		}
+	}
+
+	@Override
+	public boolean onInterceptTouchEvent(RecyclerView rv, MotionEvent e)
+	{
+		switch (e.getActionMasked())
+		{
+			case MotionEvent.ACTION_DOWN:
+			{
+				resetGesture();
+				mDownX = e.getX();
+				mDownY = e.getY();
+				mTouchedView = rv.findChildViewUnder(mDownX, mDownY);
+				mVelocityTracker = VelocityTracker.obtain();
+				mVelocityTracker.addMovement(e);
+
+				if (mOpenView != null)
+				{
+					if (mTouchedView == mOpenView && isInMenu(mOpenView, mDownX))
+					{
+						mMenuTapView = mOpenView;
+						return true;
+					}
+					if (mTouchedView != mOpenView)
+					{
+						closeOpenItem(true);
+					}
+				}
+				return false;
+			}
+
+			case MotionEvent.ACTION_MOVE:
+			{
+				if (mTouchedView == null || mGestureIgnored)
+				{
+					return false;
+				}
+				mVelocityTracker.addMovement(e);
+
+				final float dx = Math.abs(e.getX() - mDownX);
+				final float dy = Math.abs(e.getY() - mDownY);
+				if (dy > mTouchSlop && dy > dx)
+				{
+					mGestureIgnored = true;
+					return false;
+				}
+				if (dx > mTouchSlop)
+				{
+					startDrag(e);
+					return true;
+				}
+				return false;
+			}
+
+			case MotionEvent.ACTION_UP:
+			case MotionEvent.ACTION_CANCEL:
+				resetGesture();
+				return false;
+		}
+		return false;
+	}
+
+	@Override
+	public void onTouchEvent(RecyclerView rv, MotionEvent e)
+	{
+		final int action = e.getActionMasked();
+
+		if (mMenuTapView != null)
+		{
+			if (action == MotionEvent.ACTION_UP && isInMenu(mMenuTapView, e.getX()))
+			{
+				mListener.onMenuClick(rv.getChildViewHolder(mMenuTapView), (int) e.getX() - getMenuLeft(mMenuTapView));
+			}
+			if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL)
+			{
+				resetGesture();
+			}
+			return;
+		}
+
+		if (mDraggedView == null)
+		{
+			return;
+		}
+		mVelocityTracker.addMovement(e);
+
+		switch (action)
+		{
+			case MotionEvent.ACTION_MOVE:
+				mDraggedView.setTranslationX(clampTranslation(mDraggedView, mStartTranslation + e.getX() - mDownX));
+				rv.invalidate();
+				break;
+
+			case MotionEvent.ACTION_UP:
+				mVelocityTracker.computeCurrentVelocity(1000);
+				release(mDraggedView, mVelocityTracker.getXVelocity());
+				resetGesture();
+				break;
+
+			case MotionEvent.ACTION_CANCEL:
+				settle(mDraggedView, mDraggedView == mOpenView ? getOpenTranslation() : 0, false);
+				resetGesture();
+				break;
+		}
+	}
+
+	@Override
+	public void onRequestDisallowInterceptTouchEvent(boolean disallowIntercept)
+	{
+		if (disallowIntercept && mDraggedView == null)
+		{
+			resetGesture();
+		}
+	}
+
+	@Override
+	public void onChildViewAttachedToWindow(View view)
+	{
+	}
+
+	@Override
+	public void onChildViewDetachedFromWindow(View view)
+	{
+		// the row is about to be recycled, hand it back untranslated
+		resetRow(view);
+		if (view == mOpenView)
+		{
+			mOpenView = null;
+		}
+		if (view == mTouchedView || view == mDraggedView || view == mMenuTapView)
+		{
+			resetGesture();
+		}
+	}
+
+	@Override
+	public void onDraw(Canvas c, RecyclerView parent, RecyclerView.State state)
+	{
+		if (mMenuRenderer == null)
+		{
+			return;
+		}
+
+		for (int i = 0, count = parent.getChildCount(); i < count; i++)
+		{
+			final View child = parent.getChildAt(i);
+			final float translation = child.getTranslationX();
+			if (translation == 0)
+			{
+				continue;
+			}
+
+			// only the strip the row has moved away from is visible
+			c.save();
+			if (mDragEdge == SwipeableLayout.DragEdge.RIGHT)
+			{
+				c.clipRect(child.getRight() + translation, child.getTop(), child.getRight(), child.getBottom());
+			}
+			else
+			{
+				c.clipRect(child.getLeft(), child.getTop(), child.getLeft() + translation, child.getBottom());
+			}
+			mMenuRenderer.draw(c, getMenuLeft(child), child.getTop(), mMenuWidth, child.getHeight());
+			c.restore();
+		}
+	}
+
+	private void startDrag(MotionEvent e)
+	{
+		mDraggedView = mTouchedView;
+		cancelAnimation(mDraggedView);
+		mStartTranslation = mDraggedView.getTranslationX();
+		mDownX = e.getX();
+
+		if (mOpenView != null && mOpenView != mDraggedView)
+		{
+			closeOpenItem(true);
+		}
+	}
+
+	private void release(View view, float xvel)
+	{
+		final int width = view.getWidth();
+		final int left = Math.round(view.getTranslationX());
+		final int pivotOffset = (int) (mMenuWidth * mHalfSwipePivotRatio);
+		final int halfwayPivot = mDragEdge == SwipeableLayout.DragEdge.RIGHT ? width - pivotOffset : pivotOffset;
+		final RecyclerView.ViewHolder holder = mRecyclerView.getChildViewHolder(view);
+
+		switch (SwipeRelease.resolve(mDragEdge, left, left + width, xvel, mMinFlingVelocity,
+				(int) (width * mFullSwipeRatio), halfwayPivot))
+		{
+			case SwipeRelease.OPEN:
+				mOpenView = view;
+				settle(view, getOpenTranslation(), false);
+				mListener.onHalfSwipe(holder, true);
+				break;
+
+			case SwipeRelease.FULL_SWIPE:
+				if (mOpenView == view)
+				{
+					mOpenView = null;
+				}
+				settle(view, mDragEdge == SwipeableLayout.DragEdge.RIGHT ? -width : width, true);
+				break;
+
+			default:
+				if (mOpenView == view)
+				{
+					mOpenView = null;
+				}
+				settle(view, 0, false);
+				mListener.onHalfSwipe(holder, false);
+				break;
+		}
+	}
+
+	private void settle(final View view, float target, final boolean fullSwipe)
+	{
+		cancelAnimation(view);
+
+		final float start = view.getTranslationX();
+		if (start == target && !fullSwipe)
+		{
+			return;
+		}
+
+		final int width = Math.max(view.getWidth(), 1);
+		final long duration = Math.min(MAX_SETTLE_DURATION,
+				BASE_SETTLE_DURATION + (long) (MAX_SETTLE_DURATION * Math.abs(target - start) / width));
+
+		final ValueAnimator animator = ValueAnimator.ofFloat(start, target);
+		animator.setDuration(duration);
+		animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener()
+		{
+			@Override
+			public void onAnimationUpdate(ValueAnimator animation)
+			{
+				view.setTranslationX((Float) animation.getAnimatedValue());
+				if (mRecyclerView != null)
+				{
+					mRecyclerView.invalidate();
+				}
+			}
+		});
+		animator.addListener(new AnimatorListenerAdapter()
+		{
+			private boolean mCanceled;
+
+			@Override
+			public void onAnimationCancel(Animator animation)
+			{
+				mCanceled = true;
+			}
+
+			@Override
+			public void onAnimationEnd(Animator animation)
+			{
+				if (mRunningAnimations.get(view) == animation)
+				{
+					mRunningAnimations.remove(view);
+				}
+				if (fullSwipe && !mCanceled && mRecyclerView != null)
+				{
+					mListener.onFullSwipe(mRecyclerView.getChildViewHolder(view));
+					settle(view, 0, false);
+				}
+			}
+		});
+		mRunningAnimations.put(view, animator);
+		animator.start();
+	}
+
+	private void cancelAnimation(View view)
+	{
+		final ValueAnimator animator = mRunningAnimations.remove(view);
+		if (animator != null)
+		{
+			animator.cancel();
+		}
+	}
+
+	private void resetRow(View view)
+	{
+		cancelAnimation(view);
+		view.setTranslationX(0);
+	}
+
+	private void resetGesture()
+	{
+		mTouchedView = null;
+		mDraggedView = null;
+		mMenuTapView = null;
+		mGestureIgnored = false;
+		if (mVelocityTracker != null)
+		{
+			mVelocityTracker.recycle();
+			mVelocityTracker = null;
+		}
+	}
+
+	private boolean isInMenu(View view, float x)
+	{
+		final int menuLeft = getMenuLeft(view);
+		return x >= menuLeft && x < menuLeft + mMenuWidth && view.getTranslationX() == getOpenTranslation();
+	}
+
+	private int getMenuLeft(View view)
+	{
+		return mDragEdge == SwipeableLayout.DragEdge.RIGHT ? view.getRight() - mMenuWidth : view.getLeft();
+	}
+
+	private int getOpenTranslation()
+	{
+		return mDragEdge == SwipeableLayout.DragEdge.RIGHT ? -mMenuWidth : mMenuWidth;
+	}
+
+	private float clampTranslation(View view, float translation)
+	{
+		if (mDragEdge == SwipeableLayout.DragEdge.RIGHT)
+		{
+			return Math.max(-view.getWidth(), Math.min(0, translation));
+		}
+		return Math.max(0, Math.min(view.getWidth(), translation));
+	}
+}
@@ -0,0 +1,74 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.LayoutInflater;
+import android.view.View;
+
+/**
+ * Renders one menu layout into bitmaps that are shared by every {@link SwipeableLayout} of a list, see
+ * {@link SwipeableLayout#setMenuRenderer(SwipeMenuRenderer)}. Rows then draw a bitmap while they are
+ * dragged and only inflate their real menu views once fully opened. One bitmap is kept per menu size.
+ * Main thread only.
+ */
+public class SwipeMenuRenderer
+{
+	// a list has few distinct row heights, more sizes than this start the cache over
+	private static final int MAX_CACHED_SIZES = 8;
+
+	private final View mMenuView;
+
+	// keyed by width << 32 | height. Bitmaps are never recycled here, display lists of rows may still
+	// reference them, they are left to the garbage collector.
+	private final LongObjectHashMap<Bitmap> mBitmaps = new LongObjectHashMap<>(MAX_CACHED_SIZES);
+
+	/**
+	 * @param layoutResId the layout of the secondary view, the same one the rows inflate.
+	 */
+	public SwipeMenuRenderer(Context context, int layoutResId)
+	{
+		mMenuView = LayoutInflater.from(context).inflate(layoutResId, null, false);
+	}
+
+	/**
+	 * Drop the rendered bitmaps, e.g. when the menu content changed. They are rendered again on next use.
+	 */
+	public void invalidate()
+	{
+		mBitmaps.clear();
+	}
+
+	void draw(Canvas canvas, int left, int top, int width, int height)
+	{
+		if (width <= 0 || height <= 0)
+		{
+			return;
+		}
+
+		final long key = ((long) width << 32) | height;
+		Bitmap bitmap = mBitmaps.get(key);
+		if (bitmap == null)
+		{
+			if (mBitmaps.size() >= MAX_CACHED_SIZES)
+			{
+				mBitmaps.clear();
+			}
+			bitmap = render(width, height);
+			mBitmaps.put(key, bitmap);
+		}
+		canvas.drawBitmap(bitmap, left, top, null);
+	}
+
+	private Bitmap render(int width, int height)
+	{
+		mMenuView.measure(
+				View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+				View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+		mMenuView.layout(0, 0, width, height);
+
+		final Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+		mMenuView.draw(new Canvas(bitmap));
+		return bitmap;
+	}
+}
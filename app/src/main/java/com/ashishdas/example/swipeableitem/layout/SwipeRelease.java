@@ -0,0 +1,49 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+/**
+ * Decides what a released swipe does, shared by {@link SwipeableLayout} and {@link SwipeItemController}.
+ */
+final class SwipeRelease
+{
+	static final int CLOSE = 0;
+	static final int OPEN = 1;
+	static final int FULL_SWIPE = 2;
+
+	private SwipeRelease()
+	{
+	}
+
+	/**
+	 * All positions are in the same coordinates as the thresholds.
+	 *
+	 * @param mainLeft           current left of the main view.
+	 * @param mainRight          current right of the main view.
+	 * @param xvel               horizontal release velocity in px per second.
+	 * @param fullSwipeThreshold position the leading edge of the main view has to cross for a full swipe.
+	 * @param halfwayPivot       position the leading edge has to cross for a slow release to open.
+	 * @return {@link #CLOSE}, {@link #OPEN} or {@link #FULL_SWIPE}.
+	 */
+	static int resolve(SwipeableLayout.DragEdge edge, int mainLeft, int mainRight, float xvel,
+			int minFlingVelocity, int fullSwipeThreshold, int halfwayPivot)
+	{
+		switch (edge)
+		{
+			case RIGHT:
+				if (mainRight <= fullSwipeThreshold)
+				{
+					return FULL_SWIPE;
+				}
+				return (xvel <= -minFlingVelocity || mainRight < halfwayPivot) ? OPEN : CLOSE;
+
+			case LEFT:
+				if (mainLeft >= fullSwipeThreshold)
+				{
+					return FULL_SWIPE;
+				}
+				return (xvel >= minFlingVelocity || mainLeft > halfwayPivot) ? OPEN : CLOSE;
+
+			default:
+				return CLOSE;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import android.support.v4.os.TraceCompat;
+import android.util.Log;
+
+import com.ashishdas.example.swipeableitem.BuildConfig;
+
+/**
+ * Tracing and logging used by the swipeable layouts. Every call site is guarded by {@link #ENABLED},
+ * a compile-time constant, so release builds contain neither the calls nor the string building.
+ * By default sections go to systrace/perfetto through {@link TraceCompat} and messages to logcat.
+ */
+public final class SwipeTrace
+{
+	public static final boolean ENABLED = BuildConfig.DEBUG;
+
+	static final String BIND = "SwipeableLayout#bind";
+	static final String MEASURE = "SwipeableLayout#measure";
+	static final String LAYOUT = "SwipeableLayout#layout";
+	static final String DRAG_START = "SwipeableLayout#dragStart";
+	static final String RELEASE = "SwipeableLayout#release";
+	static final String SETTLE = "SwipeableLayout#settle";
+
+	public interface Tracer
+	{
+		void beginSection(String name);
+
+		void endSection();
+
+		void log(String tag, String message, int value);
+	}
+
+	private static final Tracer SYSTRACE = new Tracer()
+	{
+		@Override
+		public void beginSection(String name)
+		{
+			TraceCompat.beginSection(name);
+		}
+
+		@Override
+		public void endSection()
+		{
+			TraceCompat.endSection();
+		}
+
+		@Override
+		public void log(String tag, String message, int value)
+		{
+			Log.d(tag, message + value);
+		}
+	};
+
+	private static volatile Tracer sTracer = SYSTRACE;
+
+	private SwipeTrace()
+	{
+	}
+
+	/**
+	 * @param tracer tracer receiving sections and messages, or null to restore the default one.
+	 */
+	public static void setTracer(Tracer tracer)
+	{
+		sTracer = (tracer != null) ? tracer : SYSTRACE;
+	}
+
+	static void begin(String section)
+	{
+		sTracer.beginSection(section);
+	}
+
+	static void end()
+	{
+		sTracer.endSection();
+	}
+
+	static void log(String tag, String message, int value)
+	{
+		sTracer.log(tag, message, value);
+	}
+}
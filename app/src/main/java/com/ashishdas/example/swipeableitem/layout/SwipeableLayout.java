@@ -1,25 +1,30 @@
 package com.ashishdas.example.swipeableitem.layout;
 
 import android.content.Context;
-import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
 import android.graphics.Rect;
-import android.os.Handler;
 import android.support.v4.view.MotionEventCompat;
 import android.support.v4.view.ViewCompat;
 import android.support.v4.widget.ViewDragHelper;
 import android.util.AttributeSet;
-import android.util.DisplayMetrics;
-import android.util.Log;
 import android.view.MotionEvent;
 import android.view.View;
-import android.view.ViewConfiguration;
 import android.view.ViewGroup;
 import android.view.ViewParent;
+import android.view.ViewStub;
+
+import java.lang.ref.WeakReference;
+
+import com.ashishdas.example.swipeableitem.R;
 
 public class SwipeableLayout extends ViewGroup
 {
 	private static final String TAG = "SwipeableItem";
 
+	// cached in place of the LayoutParams size when the layout has no LayoutParams yet
+	private static final int NO_PARAMS_SIZE = Integer.MIN_VALUE;
+
 	public interface OnSwipeListener
 	{
 		void onHalfSwipe(SwipeableLayout view, boolean isOpened);
@@ -27,9 +32,21 @@ public class SwipeableLayout extends ViewGroup
 		void onFullSwipe(SwipeableLayout view);
 	}
 
+	public interface OnSwipeProgressListener
+	{
+		/**
+		 * Called at most once per frame while the main view moves.
+		 *
+		 * @param offset   distance in px the main view is moved away from its closed position.
+		 * @param progress offset relative to the secondary width: 0 closed, 1 opened, above 1 towards a full swipe.
+		 * @param edge     the current drag edge.
+		 */
+		void onSwipeProgress(SwipeableLayout view, int offset, float progress, DragEdge edge);
+	}
+
 	interface OnDragStateChangeListener
 	{
-		void onDragStateChanged(State state);
+		void onDragStateChanged(SwipeableLayout layout, State state);
 	}
 
 	public enum DragEdge
@@ -40,6 +57,10 @@ public class SwipeableLayout extends ViewGroup
 	public enum State
 	{
 		CLOSE(0), CLOSING(1), OPEN(2), OPENING(3), DRAGGING(4);
+
+		// indexed by state code, the codes are the ordinals
+		private static final State[] BY_CODE = values();
+
 		private int mStateCode;
 
 		State(int statusCode)
@@ -54,26 +75,37 @@ public class SwipeableLayout extends ViewGroup
 
 		public static State fromInt(int statusCode)
 		{
-			for (State status : values())
+			if (statusCode >= 0 && statusCode < BY_CODE.length)
 			{
-				if (status.getInt() == statusCode)
-				{
-					return status;
-				}
+				return BY_CODE[statusCode];
 			}
 			return CLOSE;
 		}
 	}
 
-	private static final int DEFAULT_MIN_FLING_VELOCITY = 300;
+	/**
+	 * Flags for {@link #setDragLayerPolicy(int)}.
+	 */
+	public static final int DRAG_LAYER_NONE = 0;
+	public static final int DRAG_LAYER_MAIN = 1;
+	public static final int DRAG_LAYER_SECONDARY = 1 << 1;
 
 	private View mMainView;
 	private View mSecondaryView;
 
+	// width of the secondary view before it is inflated, from the secondaryWidth attribute
+	private int mSecondaryWidth;
+	private SwipeMenuRenderer mMenuRenderer;
+
+	// two-sided mode, per edge and indexed by DragEdge ordinal. The active edge is mirrored into
+	// mDragEdge, mSecondaryView, mSecondaryWidth and mMenuRenderer.
+	private boolean mTwoSided = false;
+	private final View[] mEdgeSecondaryViews = new View[2];
+	private final int[] mEdgeSecondaryWidths = new int[2];
+	private final SwipeMenuRenderer[] mEdgeMenuRenderers = new SwipeMenuRenderer[2];
+
 	private Rect mRectMainClose = new Rect();
 	private Rect mRectMainOpen = new Rect();
-	private Rect mRectSecClose = new Rect();
-	private Rect mRectSecOpen = new Rect();
 
 	private State mState = State.CLOSE;
 	private DragEdge mDragEdge = DragEdge.RIGHT;
@@ -81,16 +113,75 @@ public class SwipeableLayout extends ViewGroup
 	private boolean mIsOpenBeforeInit = false;
 	private volatile boolean mAborted = false;
 	private volatile boolean mLockDrag = false;
+	private boolean mSwipeSuppressed = false;
 
+	// a full swipe is sliding the main view out, completed when the drag helper settles
+	private boolean mFullSwipePending = false;
+	private boolean mFullSwipeDismissAnimation = true;
+
+	// resolved from mConfig, so that touch and release handling only read primitive fields
+	private SwipeConfig mConfig;
 	private int mTouchSlop;
-	private int mOnLayoutCount = 0;
+	private int mMinFlingVelocity;
+	private int mFullSwipeThreshold;
+	private int mHalfwayPivot;
+
+	// touches steeper than about 30 degrees are scrolls
+	private static final float HORIZONTAL_GESTURE_SLOPE = 0.577f;
+
+	private static final int GESTURE_UNDECIDED = 0;
+	private static final int GESTURE_HORIZONTAL = 1;
+	private static final int GESTURE_VERTICAL = 2;
+
+	private int mGestureDirection = GESTURE_UNDECIDED;
+	private float mGestureDownX;
+	private float mGestureDownY;
+
+	private int mDragLayerPolicy = DRAG_LAYER_MAIN;
+	private int mPromotedLayers = DRAG_LAYER_NONE;
+
+	// inputs and result of the last measure pass, see onMeasure
+	private boolean mMeasureCacheValid = false;
+	private int mLastWidthSpec;
+	private int mLastHeightSpec;
+	private int mLastPaddingHorizontal;
+	private int mLastPaddingVertical;
+	private int mLastParamsWidth;
+	private int mLastParamsHeight;
+	private int mLastMeasuredWidth;
+	private int mLastMeasuredHeight;
+
+	// instrumentation of the measure path
+	private int mMeasurePassCount = 0;
+	private int mMeasureCacheHitCount = 0;
+	private int mChildMeasureCount = 0;
+
+	// inputs of the rects and thresholds computed by the last layout pass, see layoutChildren
+	private boolean mRectsValid = false;
+	private DragEdge mRectsDragEdge;
+	private int mRectsSecondaryWidth;
+	private int mRectsWidth;
+	private int mLayoutCacheHitCount = 0;
+
+	// secondary view draws, see drawChild
+	private int mSecondaryDrawCount = 0;
+	private int mSecondaryDrawSkipCount = 0;
+
 	private int mHorizontalDragRange;
 
 	private final ViewDragHelper mDragHelper;
 
 	private OnSwipeListener mOnSwipeListener;
+	private OnSwipeProgressListener mOnSwipeProgressListener;
+	private boolean mProgressDispatchPending = false;
+	private int mLastDispatchedOffset = 0;
 	private OnDragStateChangeListener mOnDragStateChangeListener;
 
+	// id this layout is bound to by SwipeableLayoutBinderHelper, valid when mBound is true
+	private long mBoundId;
+	private boolean mBound = false;
+	private WeakReference<SwipeableLayout> mWeakReference;
+
 	public SwipeableLayout(Context context)
 	{
 		this(context, null);
@@ -105,9 +196,15 @@ public class SwipeableLayout extends ViewGroup
 	{
 		super(context, attrs, defStyleAttr);
 
-		// scroll threshold
-		ViewConfiguration vc = ViewConfiguration.get(this.getContext());
-		mTouchSlop = vc.getScaledTouchSlop();
+		final TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SwipeableLayout, defStyleAttr, 0);
+		mSecondaryWidth = a.getDimensionPixelSize(R.styleable.SwipeableLayout_secondaryWidth, 0);
+		mEdgeSecondaryWidths[DragEdge.LEFT.ordinal()] =
+				a.getDimensionPixelSize(R.styleable.SwipeableLayout_leftSecondaryWidth, mSecondaryWidth);
+		mEdgeSecondaryWidths[DragEdge.RIGHT.ordinal()] =
+				a.getDimensionPixelSize(R.styleable.SwipeableLayout_rightSecondaryWidth, mSecondaryWidth);
+		a.recycle();
+
+		setSwipeConfig(SwipeConfig.getDefault(context));
 
 		mDragHelper = ViewDragHelper.create(this, mDragHelperCallback);
 	}
@@ -120,6 +217,59 @@ public class SwipeableLayout extends ViewGroup
 		mOnDragStateChangeListener = listener;
 	}
 
+	/**
+	 * Only used for {@link SwipeableLayoutBinderHelper}, new gestures are left to the parent while suppressed.
+	 */
+	void setSwipeSuppressed(boolean suppressed)
+	{
+		mSwipeSuppressed = suppressed;
+	}
+
+	/**
+	 * Only used for {@link SwipeableLayoutBinderHelper}
+	 */
+	void setBoundId(long id)
+	{
+		mBoundId = id;
+		mBound = true;
+	}
+
+	/**
+	 * Only used for {@link SwipeableLayoutBinderHelper}
+	 */
+	void clearBoundId()
+	{
+		mBound = false;
+	}
+
+	/**
+	 * Only used for {@link SwipeableLayoutBinderHelper}, created once so that rebinding does not allocate.
+	 */
+	WeakReference<SwipeableLayout> getWeakReference()
+	{
+		if (mWeakReference == null)
+		{
+			mWeakReference = new WeakReference<>(this);
+		}
+		return mWeakReference;
+	}
+
+	/**
+	 * Only used for {@link SwipeableLayoutBinderHelper}
+	 */
+	boolean isBound()
+	{
+		return mBound;
+	}
+
+	/**
+	 * Only used for {@link SwipeableLayoutBinderHelper}
+	 */
+	long getBoundId()
+	{
+		return mBoundId;
+	}
+
 	@Override
 	protected boolean checkLayoutParams(LayoutParams p)
 	{
@@ -142,34 +292,97 @@ public class SwipeableLayout extends ViewGroup
 		return mLockDrag;
 	}
 
-	/**
-	 * In RecyclerView/ListView, onLayout should be called 2 times to display children views correctly.
-	 * This method check if it've already called onLayout two times.
-	 *
-	 * @return true if you should call {@link #requestLayout()}.
-	 */
-	protected boolean shouldRequestLayout()
-	{
-		return mOnLayoutCount < 2;
-	}
-
 	/**
 	 * Abort current motion in progress. Only used for {@link SwipeableLayoutBinderHelper}
 	 */
 	protected void abort()
 	{
 		mAborted = true;
+		mFullSwipePending = false;
 		mDragHelper.abort();
 	}
 
 	/**
-	 * Set the edge where the layout can be dragged from.
+	 * Set the edge where the layout can be dragged from. In two-sided mode this selects the side that
+	 * {@link #open(boolean)} reveals, and is ignored unless the layout is closed.
 	 *
 	 * @param dragEdge
 	 */
 	public void setDragEdge(DragEdge dragEdge)
 	{
-		mDragEdge = dragEdge;
+		if (!mTwoSided)
+		{
+			mDragEdge = dragEdge;
+			mMenuRenderer = mEdgeMenuRenderers[dragEdge.ordinal()];
+		}
+		else if (mState == State.CLOSE)
+		{
+			setActiveEdge(dragEdge);
+		}
+	}
+
+	/**
+	 * @return the edge where the layout is dragged from, in two-sided mode the side dragged last.
+	 */
+	public DragEdge getDragEdge()
+	{
+		return mDragEdge;
+	}
+
+	/**
+	 * A layout with three children is two-sided: the first child is revealed at the left edge, the second one
+	 * at the right edge and the third one is the main view. The side is picked by the direction of each drag
+	 * that starts closed. Only the active side is measured and laid out, a {@link ViewStub} side is inflated
+	 * the first time it is dragged, so set the leftSecondaryWidth / rightSecondaryWidth attributes.
+	 *
+	 * @return true if the layout reveals secondary views at both edges.
+	 */
+	public boolean isTwoSided()
+	{
+		return mTwoSided;
+	}
+
+	/**
+	 * @param config swipe thresholds, usually one instance shared by all the layouts of a list.
+	 */
+	public void setSwipeConfig(SwipeConfig config)
+	{
+		if (config == mConfig)
+		{
+			return;
+		}
+
+		mConfig = config;
+		mTouchSlop = config.getTouchSlop();
+		mMinFlingVelocity = config.getMinFlingVelocity();
+
+		if (mMainView != null && mSecondaryView != null)
+		{
+			updateThresholds();
+		}
+	}
+
+	/**
+	 * Choose which children are rendered into a hardware layer while the row is dragged or settling, so
+	 * that moving frames only re-composite the layer instead of redrawing the whole subtree. Layers are
+	 * released as soon as the drag helper is idle again.
+	 *
+	 * @param policy a combination of {@link #DRAG_LAYER_MAIN} and {@link #DRAG_LAYER_SECONDARY},
+	 *               or {@link #DRAG_LAYER_NONE}. Default is {@link #DRAG_LAYER_MAIN}.
+	 */
+	public void setDragLayerPolicy(int policy)
+	{
+		mDragLayerPolicy = policy;
+	}
+
+	/**
+	 * @param animate if true (the default), a full swipe first slides the main view out and
+	 *                {@link OnSwipeListener#onFullSwipe(SwipeableLayout)} is called once that slide has
+	 *                settled. If false, the callback is called as soon as the finger is lifted.
+	 */
+	public void setFullSwipeDismissAnimation(boolean animate)
+	{
+		mFullSwipeDismissAnimation = animate;
 	}
 
 	/**
@@ -192,19 +405,205 @@ public class SwipeableLayout extends ViewGroup
 	protected void onFinishInflate()
 	{
 		super.onFinishInflate();
-		if (getChildCount() >= 2)
+		if (getChildCount() >= 3)
+		{
+			mTwoSided = true;
+			mEdgeSecondaryViews[DragEdge.LEFT.ordinal()] = getChildAt(0);
+			mEdgeSecondaryViews[DragEdge.RIGHT.ordinal()] = getChildAt(1);
+			mMainView = getChildAt(2);
+
+			final View inactive = mEdgeSecondaryViews[1 - mDragEdge.ordinal()];
+			if (!(inactive instanceof ViewStub))
+			{
+				inactive.setVisibility(INVISIBLE);
+			}
+
+			mSecondaryView = mEdgeSecondaryViews[mDragEdge.ordinal()];
+			mSecondaryWidth = mEdgeSecondaryWidths[mDragEdge.ordinal()];
+
+			// without a known width the drag range needs the real view
+			if (mSecondaryView instanceof ViewStub && mSecondaryWidth <= 0)
+			{
+				ensureSecondaryView();
+			}
+		}
+		else if (getChildCount() >= 2)
 		{
 			mSecondaryView = getChildAt(0);
 			mMainView = getChildAt(1);
+
+			// without a known width the drag range needs the real view
+			if (mSecondaryView instanceof ViewStub && mSecondaryWidth <= 0)
+			{
+				mSecondaryView = ((ViewStub) mSecondaryView).inflate();
+			}
+		}
+	}
+
+	/**
+	 * The secondary view can be a {@link ViewStub}, it is then inflated the first time the layout is
+	 * dragged or opened. Set the secondaryWidth attribute so that drag ranges are known beforehand.
+	 * Use {@link ViewStub#setOnInflateListener(ViewStub.OnInflateListener)} to set up the inflated view.
+	 *
+	 * @return true if the secondary view is a real view, not a pending stub.
+	 */
+	public boolean isSecondaryViewInflated()
+	{
+		return !(mSecondaryView instanceof ViewStub);
+	}
+
+	/**
+	 * Draw a pending {@link ViewStub} secondary view from a bitmap shared across rows while the layout is
+	 * dragged or settling. The real view is only inflated once the layout is fully opened. Needs the
+	 * secondaryWidth attribute.
+	 *
+	 * @param renderer renderer of the secondary layout, usually one instance per adapter, or null.
+	 */
+	public void setMenuRenderer(SwipeMenuRenderer renderer)
+	{
+		mEdgeMenuRenderers[DragEdge.LEFT.ordinal()] = renderer;
+		mEdgeMenuRenderers[DragEdge.RIGHT.ordinal()] = renderer;
+		mMenuRenderer = renderer;
+		invalidate();
+	}
+
+	/**
+	 * Per edge variant of {@link #setMenuRenderer(SwipeMenuRenderer)}, for two-sided layouts.
+	 */
+	public void setMenuRenderer(DragEdge edge, SwipeMenuRenderer renderer)
+	{
+		mEdgeMenuRenderers[edge.ordinal()] = renderer;
+		if (edge == mDragEdge)
+		{
+			mMenuRenderer = renderer;
+			invalidate();
+		}
+	}
+
+	/**
+	 * Switch the side of a two-sided layout, only while it is closed and idle. The other side is hidden
+	 * without a layout pass and skipped by measure and layout until it is active again.
+	 */
+	private void setActiveEdge(DragEdge edge)
+	{
+		if (edge == mDragEdge)
+		{
+			return;
 		}
+
+		if (isSecondaryViewInflated())
+		{
+			mSecondaryView.setVisibility(INVISIBLE);
+		}
+
+		mDragEdge = edge;
+		mSecondaryView = mEdgeSecondaryViews[edge.ordinal()];
+		mSecondaryWidth = mEdgeSecondaryWidths[edge.ordinal()];
+		mMenuRenderer = mEdgeMenuRenderers[edge.ordinal()];
+
+		// without a known width the drag range needs the real view, inflating also lays it out
+		if (!isSecondaryViewInflated() && mSecondaryWidth <= 0)
+		{
+			ensureSecondaryView();
+			return;
+		}
+
+		if (getWidth() > 0)
+		{
+			if (isSecondaryViewInflated())
+			{
+				mSecondaryView.setVisibility(VISIBLE);
+				layoutSecondaryView();
+			}
+			initOpenRect();
+			updateThresholds();
+		}
+		else if (isSecondaryViewInflated())
+		{
+			mSecondaryView.setVisibility(VISIBLE);
+		}
+	}
+
+	private boolean isInactiveSecondaryView(View child)
+	{
+		return mTwoSided && child != mMainView && child != mSecondaryView;
+	}
+
+	private void ensureSecondaryView()
+	{
+		if (isSecondaryViewInflated())
+		{
+			return;
+		}
+
+		mSecondaryView = ((ViewStub) mSecondaryView).inflate();
+		mMeasureCacheValid = false;
+		if (mTwoSided)
+		{
+			mEdgeSecondaryViews[mDragEdge.ordinal()] = mSecondaryView;
+		}
+
+		// inflating requests a layout, but the drag uncovers the view in this frame already
+		if (getWidth() > 0)
+		{
+			layoutSecondaryView();
+
+			// the real width may differ from the attribute
+			initOpenRect();
+			updateThresholds();
+		}
+	}
+
+	/**
+	 * Measure and lay out the secondary view alone, against the current size of the layout.
+	 */
+	private void layoutSecondaryView()
+	{
+		final int width = getWidth() - getPaddingLeft() - getPaddingRight();
+		final LayoutParams params = mSecondaryView.getLayoutParams();
+		mSecondaryView.measure(
+				getChildMeasureSpec(MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY), 0, params.width),
+				MeasureSpec.makeMeasureSpec(mRectMainClose.height(), MeasureSpec.EXACTLY));
+		mChildMeasureCount++;
+
+		final int secondaryWidth = mSecondaryView.getMeasuredWidth();
+		final int left = (mDragEdge == DragEdge.RIGHT)
+				? getWidth() - getPaddingRight() - secondaryWidth
+				: getPaddingLeft();
+		mSecondaryView.layout(left, mRectMainClose.top, left + secondaryWidth, mRectMainClose.bottom);
+	}
+
+	private int getSecondaryWidth()
+	{
+		return isSecondaryViewInflated() ? mSecondaryView.getWidth() : mSecondaryWidth;
 	}
 
 	@Override
 	protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec)
+	{
+		if (SwipeTrace.ENABLED)
+		{
+			SwipeTrace.begin(SwipeTrace.MEASURE);
+		}
+
+		try
+		{
+			measureLayout(widthMeasureSpec, heightMeasureSpec);
+		}
+		finally
+		{
+			if (SwipeTrace.ENABLED)
+			{
+				SwipeTrace.end();
+			}
+		}
+	}
+
+	private void measureLayout(int widthMeasureSpec, int heightMeasureSpec)
 	{
 		if (getChildCount() < 2)
 		{
-			throw new RuntimeException("Layout must have two children");
+			throw new RuntimeException("Layout must have two or three children");
 		}
 
 		final LayoutParams params = getLayoutParams();
@@ -215,44 +614,85 @@ public class SwipeableLayout extends ViewGroup
 		int desiredWidth = 0;
 		int desiredHeight = 0;
 
+		final int paddingHorizontal = getPaddingLeft() + getPaddingRight();
+		final int paddingVertical = getPaddingTop() + getPaddingBottom();
+
+		// a layout inflated without a parent has no LayoutParams until it is added to one
+		final int paramsWidth = params != null ? params.width : NO_PARAMS_SIZE;
+		final int paramsHeight = params != null ? params.height : NO_PARAMS_SIZE;
+
+		mMeasurePassCount++;
+
+		// same inputs as the last pass and no child asked to be measured again, reuse the last result
+		if (mMeasureCacheValid
+				&& widthMeasureSpec == mLastWidthSpec
+				&& heightMeasureSpec == mLastHeightSpec
+				&& paddingHorizontal == mLastPaddingHorizontal
+				&& paddingVertical == mLastPaddingVertical
+				&& paramsWidth == mLastParamsWidth
+				&& paramsHeight == mLastParamsHeight
+				&& !isAnyChildLayoutRequested())
+		{
+			mMeasureCacheHitCount++;
+			setMeasuredDimension(mLastMeasuredWidth, mLastMeasuredHeight);
+			return;
+		}
+
+		mLastWidthSpec = widthMeasureSpec;
+		mLastHeightSpec = heightMeasureSpec;
+		mLastPaddingHorizontal = paddingHorizontal;
+		mLastPaddingVertical = paddingVertical;
+		mLastParamsWidth = paramsWidth;
+		mLastParamsHeight = paramsHeight;
+
 		// first find the largest child
 		for (int i = 0; i < getChildCount(); i++)
 		{
 			final View child = getChildAt(i);
+			if (child.getVisibility() == GONE || isInactiveSecondaryView(child))
+			{
+				continue;
+			}
 			measureChild(child, widthMeasureSpec, heightMeasureSpec);
+			mChildMeasureCount++;
 			desiredWidth = Math.max(child.getMeasuredWidth(), desiredWidth);
 			desiredHeight = Math.max(child.getMeasuredHeight(), desiredHeight);
 		}
-		// create new measure spec using the largest child width
-		widthMeasureSpec = MeasureSpec.makeMeasureSpec(desiredWidth, widthMode);
-		heightMeasureSpec = MeasureSpec.makeMeasureSpec(desiredHeight, heightMode);
-
-		final int measuredWidth = MeasureSpec.getSize(widthMeasureSpec);
-		final int measuredHeight = MeasureSpec.getSize(heightMeasureSpec);
 
+		// children matching the parent have to fill the largest child, measure them again only
+		// when they did not already come out at that size
 		for (int i = 0; i < getChildCount(); i++)
 		{
 			final View child = getChildAt(i);
 			final LayoutParams childParams = child.getLayoutParams();
 
-			if (childParams != null)
+			if (childParams == null || child.getVisibility() == GONE || isInactiveSecondaryView(child))
 			{
-				if (childParams.height == LayoutParams.MATCH_PARENT)
-				{
-					child.setMinimumHeight(measuredHeight);
-				}
-
-				if (childParams.width == LayoutParams.MATCH_PARENT)
-				{
-					child.setMinimumWidth(measuredWidth);
-				}
+				continue;
 			}
 
-			measureChild(child, widthMeasureSpec, heightMeasureSpec);
-			desiredWidth = Math.max(child.getMeasuredWidth(), desiredWidth);
-			desiredHeight = Math.max(child.getMeasuredHeight(), desiredHeight);
+			final boolean matchWidth = childParams.width == LayoutParams.MATCH_PARENT;
+			final boolean matchHeight = childParams.height == LayoutParams.MATCH_PARENT;
+
+			if ((matchWidth && child.getMeasuredWidth() != desiredWidth)
+					|| (matchHeight && child.getMeasuredHeight() != desiredHeight))
+			{
+				final int childWidthSpec = matchWidth
+						? MeasureSpec.makeMeasureSpec(desiredWidth, MeasureSpec.EXACTLY)
+						: getChildMeasureSpec(widthMeasureSpec, paddingHorizontal, childParams.width);
+				final int childHeightSpec = matchHeight
+						? MeasureSpec.makeMeasureSpec(desiredHeight, MeasureSpec.EXACTLY)
+						: getChildMeasureSpec(heightMeasureSpec, paddingVertical, childParams.height);
+
+				child.measure(childWidthSpec, childHeightSpec);
+				mChildMeasureCount++;
+			}
 		}
 
+		// size of the largest child
+		final int measuredWidth = desiredWidth;
+		final int measuredHeight = desiredHeight;
+
 		// taking accounts of padding
 		desiredWidth += getPaddingLeft() + getPaddingRight();
 		desiredHeight += getPaddingTop() + getPaddingBottom();
@@ -293,17 +733,110 @@ public class SwipeableLayout extends ViewGroup
 			}
 		}
 
+		mLastMeasuredWidth = desiredWidth;
+		mLastMeasuredHeight = desiredHeight;
+		mMeasureCacheValid = true;
+
 		setMeasuredDimension(desiredWidth, desiredHeight);
 	}
 
+	private boolean isAnyChildLayoutRequested()
+	{
+		for (int i = 0; i < getChildCount(); i++)
+		{
+			if (getChildAt(i).isLayoutRequested())
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return number of times {@link #onMeasure(int, int)} ran.
+	 */
+	public int getMeasurePassCount()
+	{
+		return mMeasurePassCount;
+	}
+
+	/**
+	 * @return number of measure passes answered from the cached result without measuring children.
+	 */
+	public int getMeasureCacheHitCount()
+	{
+		return mMeasureCacheHitCount;
+	}
+
+	/**
+	 * @return number of child measurements done by this layout.
+	 */
+	public int getChildMeasureCount()
+	{
+		return mChildMeasureCount;
+	}
+
+	/**
+	 * @return number of layout passes that kept the open / close positions of the previous pass.
+	 */
+	public int getLayoutCacheHitCount()
+	{
+		return mLayoutCacheHitCount;
+	}
+
+	/**
+	 * @return number of times the secondary view was drawn, clipped to the strip uncovered by the main view.
+	 */
+	public int getSecondaryDrawCount()
+	{
+		return mSecondaryDrawCount;
+	}
+
+	/**
+	 * @return number of times drawing the secondary view was skipped because the main view covered it.
+	 */
+	public int getSecondaryDrawSkipCount()
+	{
+		return mSecondaryDrawSkipCount;
+	}
+
 	@Override
 	protected void onLayout(boolean changed, int l, int t, int r, int b)
+	{
+		if (SwipeTrace.ENABLED)
+		{
+			SwipeTrace.begin(SwipeTrace.LAYOUT);
+		}
+
+		try
+		{
+			layoutChildren(l, t, r, b);
+		}
+		finally
+		{
+			if (SwipeTrace.ENABLED)
+			{
+				SwipeTrace.end();
+			}
+		}
+	}
+
+	private void layoutChildren(int l, int t, int r, int b)
 	{
 		mAborted = false;
 
+		// a layout pass during a drag or settle (e.g. the secondary view was just inflated)
+		// keeps the main view where the drag helper has put it
+		final boolean keepOffset = mDragHelper.getViewDragState() != ViewDragHelper.STATE_IDLE;
+		final int mainOffset = mMainView.getLeft() - mRectMainClose.left;
+
 		for (int index = 0; index < getChildCount(); index++)
 		{
 			final View child = getChildAt(index);
+			if (child.getVisibility() == GONE || isInactiveSecondaryView(child))
+			{
+				continue;
+			}
 
 			int left, right, top, bottom;
 			left = right = top = bottom = 0;
@@ -329,16 +862,16 @@ public class SwipeableLayout extends ViewGroup
 						(childParams.width == LayoutParams.FILL_PARENT);
 			}
 
+			// fill the available space, without touching the child LayoutParams, onMeasure
+			// already measured such children at the size of the largest child
 			if (matchParentHeight)
 			{
 				measuredChildHeight = maxBottom - minTop;
-				childParams.height = measuredChildHeight;
 			}
 
 			if (matchParentWidth)
 			{
 				measuredChildWidth = maxRight - minLeft;
-				childParams.width = measuredChildWidth;
 			}
 
 			switch (mDragEdge)
@@ -362,11 +895,27 @@ public class SwipeableLayout extends ViewGroup
 		}
 
 
-		initRects();
+		// a rebound row of a uniform list comes out at the same place, only the state has to be applied
+		if (isLayoutGeometryUnchanged())
+		{
+			mLayoutCacheHitCount++;
+		}
+		else
+		{
+			initRects();
+			updateThresholds();
 
-		mHorizontalDragRange = getHalfwayPivotHorizontal();
+			mRectsValid = true;
+			mRectsDragEdge = mDragEdge;
+			mRectsSecondaryWidth = getSecondaryWidth();
+			mRectsWidth = getMeasuredWidth();
+		}
 
-		if (mIsOpenBeforeInit)
+		if (keepOffset)
+		{
+			snapMainViewTo(mRectMainClose.left + mainOffset);
+		}
+		else if (mIsOpenBeforeInit)
 		{
 			open(false);
 		}
@@ -374,13 +923,15 @@ public class SwipeableLayout extends ViewGroup
 		{
 			close(false);
 		}
-
-		mOnLayoutCount++;
 	}
 
 	public void open(boolean animation)
 	{
-
+		// with a menu renderer, an animated open materializes the menu when it settles
+		if (!animation || mMenuRenderer == null)
+		{
+			ensureSecondaryView();
+		}
 		_open(animation, mRectMainOpen.left);
 	}
 
@@ -394,61 +945,250 @@ public class SwipeableLayout extends ViewGroup
 		mOnSwipeListener = listener;
 	}
 
+	/**
+	 * Position changes within one frame are coalesced into a single callback on the next animation frame.
+	 */
+	public void setOnSwipeProgressListener(OnSwipeProgressListener listener)
+	{
+		mOnSwipeProgressListener = listener;
+		mLastDispatchedOffset = 0;
+		if (listener != null)
+		{
+			scheduleProgressDispatch();
+		}
+	}
+
+	@Override
+	protected void onDetachedFromWindow()
+	{
+		super.onDetachedFromWindow();
+		if (mProgressDispatchPending)
+		{
+			removeCallbacks(mDispatchProgressRunnable);
+			mProgressDispatchPending = false;
+		}
+	}
+
+	@Override
+	public boolean dispatchTouchEvent(MotionEvent ev)
+	{
+		arbitrateGesture(ev);
+		return super.dispatchTouchEvent(ev);
+	}
+
 	@Override
 	public boolean onInterceptTouchEvent(MotionEvent ev)
 	{
+		if (mGestureDirection == GESTURE_VERTICAL)
+		{
+			return false;
+		}
 		return mDragHelper.shouldInterceptTouchEvent(ev);
 	}
 
 	@Override
 	public boolean onTouchEvent(MotionEvent ev)
 	{
+		if (mGestureDirection != GESTURE_VERTICAL)
+		{
+			mDragHelper.processTouchEvent(ev);
+		}
+		return true;
+	}
 
-		mDragHelper.processTouchEvent(ev);
-		// handle parent scroll behaviour
-		if (Math.abs(mMainView.getLeft()) > mTouchSlop)
+	/**
+	 * Decide once per gesture whether it is a swipe or a scroll. A swipe is owned by this layout from then on,
+	 * a scroll is left to the parent right away and never reaches the drag helper again.
+	 */
+	private void arbitrateGesture(MotionEvent ev)
+	{
+		switch (MotionEventCompat.getActionMasked(ev))
 		{
+			case MotionEvent.ACTION_DOWN:
+				mGestureDownX = ev.getX();
+				mGestureDownY = ev.getY();
+				mGestureDirection = GESTURE_UNDECIDED;
 
-			// disable parent scrolling
-			ViewParent parent = getParent();
-			if (parent != null)
-			{
-				parent.requestDisallowInterceptTouchEvent(true);
-			}
+				if (mSwipeSuppressed)
+				{
+					mGestureDirection = GESTURE_VERTICAL;
+				}
+				// a settling layout is caught by the finger
+				else if (mDragHelper.getViewDragState() == ViewDragHelper.STATE_SETTLING)
+				{
+					claimGesture();
+				}
+				break;
+
+			case MotionEvent.ACTION_MOVE:
+				if (mGestureDirection != GESTURE_UNDECIDED)
+				{
+					break;
+				}
+
+				final float dx = Math.abs(ev.getX() - mGestureDownX);
+				final float dy = Math.abs(ev.getY() - mGestureDownY);
+				if (dx <= mTouchSlop && dy <= mTouchSlop)
+				{
+					break;
+				}
+
+				if (!mLockDrag && dy < dx * HORIZONTAL_GESTURE_SLOPE)
+				{
+					// a two-sided layout reveals the side the finger moves away from
+					if (mTwoSided && mState == State.CLOSE
+							&& mDragHelper.getViewDragState() == ViewDragHelper.STATE_IDLE)
+					{
+						setActiveEdge(ev.getX() < mGestureDownX ? DragEdge.RIGHT : DragEdge.LEFT);
+					}
+					claimGesture();
+				}
+				else
+				{
+					mGestureDirection = GESTURE_VERTICAL;
+					mDragHelper.cancel();
+				}
+				break;
 		}
-		else if (MotionEventCompat.getActionMasked(ev) == MotionEvent.ACTION_UP || MotionEventCompat.getActionMasked(ev) == MotionEvent.ACTION_CANCEL)
+	}
+
+	private void claimGesture()
+	{
+		mGestureDirection = GESTURE_HORIZONTAL;
+
+		final ViewParent parent = getParent();
+		if (parent != null)
 		{
-			// enable parent scrolling
-			ViewParent parent = getParent();
-			if (parent != null)
-			{
-				parent.requestDisallowInterceptTouchEvent(false);
-			}
+			parent.requestDisallowInterceptTouchEvent(true);
 		}
-		return true;
+	}
+
+	@Override
+	protected void dispatchDraw(Canvas canvas)
+	{
+		if (mMenuRenderer != null && !isSecondaryViewInflated() && mMainView.getLeft() != mRectMainClose.left)
+		{
+			drawPendingSecondaryView(canvas);
+		}
+		super.dispatchDraw(canvas);
+	}
+
+	@Override
+	protected boolean drawChild(Canvas canvas, View child, long drawingTime)
+	{
+		// only an opaque main view hides what is below it
+		if (child == mMainView || mMainView == null || mMainView.getVisibility() != VISIBLE || !mMainView.isOpaque())
+		{
+			return super.drawChild(canvas, child, drawingTime);
+		}
+
+		// a closed row would only paint the secondary view over with the main view
+		final int mainLeft = mMainView.getLeft();
+		if (mainLeft == mRectMainClose.left || isInactiveSecondaryView(child))
+		{
+			mSecondaryDrawSkipCount++;
+			return false;
+		}
+
+		// only the strip uncovered by the main view
+		final int saveCount = canvas.save();
+		if (mainLeft < mRectMainClose.left)
+		{
+			canvas.clipRect(mMainView.getRight(), child.getTop(), child.getRight(), child.getBottom());
+		}
+		else
+		{
+			canvas.clipRect(child.getLeft(), child.getTop(), mainLeft, child.getBottom());
+		}
+		final boolean more = super.drawChild(canvas, child, drawingTime);
+		canvas.restoreToCount(saveCount);
+
+		mSecondaryDrawCount++;
+		return more;
+	}
+
+	private void drawPendingSecondaryView(Canvas canvas)
+	{
+		final int top = mRectMainClose.top;
+		final int bottom = mRectMainClose.bottom;
+		final int left = (mDragEdge == DragEdge.RIGHT)
+				? getWidth() - getPaddingRight() - mSecondaryWidth
+				: getPaddingLeft();
+
+		// only the strip uncovered by the main view
+		final int saveCount = canvas.save();
+		if (mDragEdge == DragEdge.RIGHT)
+		{
+			canvas.clipRect(mMainView.getRight(), top, left + mSecondaryWidth, bottom);
+		}
+		else
+		{
+			canvas.clipRect(left, top, mMainView.getLeft(), bottom);
+		}
+		mMenuRenderer.draw(canvas, left, top, mSecondaryWidth, bottom - top);
+		canvas.restoreToCount(saveCount);
 	}
 
 	@Override
 	public void computeScroll()
 	{
-		if (mDragHelper != null && mDragHelper.continueSettling(true))
+		if (mDragHelper == null || mDragHelper.getViewDragState() != ViewDragHelper.STATE_SETTLING)
+		{
+			return;
+		}
+
+		if (SwipeTrace.ENABLED)
+		{
+			SwipeTrace.begin(SwipeTrace.SETTLE);
+		}
+
+		if (mDragHelper.continueSettling(true))
 		{
 			ViewCompat.postInvalidateOnAnimation(this);
 		}
+
+		if (SwipeTrace.ENABLED)
+		{
+			SwipeTrace.end();
+		}
+	}
+
+	private void updateThresholds()
+	{
+		mFullSwipeThreshold = (int) (getMeasuredWidth() * mConfig.getFullSwipeRatio());
+		mHalfwayPivot = getHalfwayPivotHorizontal();
+		mHorizontalDragRange = mHalfwayPivot;
 	}
 
 	private int getHalfwayPivotHorizontal()
 	{
+		final int pivotOffset = (int) (getSecondaryWidth() * mConfig.getHalfSwipePivotRatio());
+
 		if (mDragEdge == DragEdge.LEFT)
 		{
-			return mRectMainClose.left + mSecondaryView.getWidth() / 2;
+			return mRectMainClose.left + pivotOffset;
 		}
 		else
 		{
-			return mRectMainClose.right - mSecondaryView.getWidth() / 2;
+			return mRectMainClose.right - pivotOffset;
 		}
 	}
 
+	/**
+	 * Called right after the children are laid out, with the main view at its closed position.
+	 */
+	private boolean isLayoutGeometryUnchanged()
+	{
+		return mRectsValid
+				&& mRectsDragEdge == mDragEdge
+				&& mRectsSecondaryWidth == getSecondaryWidth()
+				&& mRectsWidth == getMeasuredWidth()
+				&& mRectMainClose.left == mMainView.getLeft()
+				&& mRectMainClose.top == mMainView.getTop()
+				&& mRectMainClose.right == mMainView.getRight()
+				&& mRectMainClose.bottom == mMainView.getBottom();
+	}
+
 	private void initRects()
 	{
 		// close position of main view
@@ -459,14 +1199,11 @@ public class SwipeableLayout extends ViewGroup
 				mMainView.getBottom()
 		);
 
-		// close position of secondary view
-		mRectSecClose.set(
-				mSecondaryView.getLeft(),
-				mSecondaryView.getTop(),
-				mSecondaryView.getRight(),
-				mSecondaryView.getBottom()
-		);
+		initOpenRect();
+	}
 
+	private void initOpenRect()
+	{
 		// open position of the main view
 		mRectMainOpen.set(
 				getMainOpenLeft(),
@@ -474,15 +1211,6 @@ public class SwipeableLayout extends ViewGroup
 				getMainOpenLeft() + mMainView.getWidth(),
 				mRectMainClose.top + mMainView.getHeight()
 		);
-
-		// open position of the secondary view
-		mRectSecOpen.set(
-				mRectSecClose.left,
-				mRectSecClose.top,
-				mRectSecClose.left + mSecondaryView.getWidth(),
-				mRectSecClose.top + mSecondaryView.getHeight()
-		);
-
 	}
 
 	private int getMainOpenLeft()
@@ -490,10 +1218,10 @@ public class SwipeableLayout extends ViewGroup
 		switch (mDragEdge)
 		{
 			case LEFT:
-				return mRectMainClose.left + mSecondaryView.getWidth();
+				return mRectMainClose.left + getSecondaryWidth();
 
 			case RIGHT:
-				return mRectMainClose.left - mSecondaryView.getWidth();
+				return mRectMainClose.left - getSecondaryWidth();
 			default:
 				return 0;
 		}
@@ -502,12 +1230,10 @@ public class SwipeableLayout extends ViewGroup
 	private final ViewDragHelper.Callback mDragHelperCallback = new ViewDragHelper.Callback()
 	{
 
-		private Handler mHandler = new Handler();
-
 		@Override
 		public boolean tryCaptureView(View view, int pointerId)
 		{
-			if (mLockDrag)
+			if (mLockDrag || mGestureDirection != GESTURE_HORIZONTAL)
 			{
 				return false;
 			}
@@ -544,17 +1270,48 @@ public class SwipeableLayout extends ViewGroup
 			switch (state)
 			{
 				case ViewDragHelper.STATE_DRAGGING:
+					if (SwipeTrace.ENABLED)
+					{
+						SwipeTrace.begin(SwipeTrace.DRAG_START);
+					}
 					mState = State.DRAGGING;
+					if (mMenuRenderer == null)
+					{
+						ensureSecondaryView();
+					}
+					promoteLayers();
+					if (SwipeTrace.ENABLED)
+					{
+						SwipeTrace.end();
+					}
+					break;
+
+				case ViewDragHelper.STATE_SETTLING:
+					promoteLayers();
 					break;
 
 				case ViewDragHelper.STATE_IDLE:
+					demoteLayers();
+
+					if (mFullSwipePending)
+					{
+						// the main view has settled outside, close it and report the full swipe
+						mFullSwipePending = false;
+						completeFullSwipe();
+						return;
+					}
+
 					mState = (mMainView.getLeft() == mRectMainClose.left) ? mState = State.CLOSE : State.OPEN;
+					if (mState == State.OPEN)
+					{
+						ensureSecondaryView();
+					}
 					break;
 			}
 
 			if (mOnDragStateChangeListener != null && !mAborted && prevState != mState)
 			{
-				mOnDragStateChangeListener.onDragStateChanged(mState);
+				mOnDragStateChangeListener.onDragStateChanged(SwipeableLayout.this, mState);
 			}
 		}
 
@@ -562,80 +1319,72 @@ public class SwipeableLayout extends ViewGroup
 		public void onViewPositionChanged(View changedView, int left, int top, int dx, int dy)
 		{
 			ViewCompat.postInvalidateOnAnimation(SwipeableLayout.this);
+			scheduleProgressDispatch();
 		}
 
 		@Override
 		public void onViewReleased(View releasedChild, float xvel, float yvel)
 		{
+			if (SwipeTrace.ENABLED)
+			{
+				SwipeTrace.begin(SwipeTrace.RELEASE);
+			}
 
-			final boolean velRightExceeded = pxToDp((int) xvel) >= DEFAULT_MIN_FLING_VELOCITY;
-			final boolean velLeftExceeded = pxToDp((int) xvel) <= -DEFAULT_MIN_FLING_VELOCITY;
+			try
+			{
+				handleRelease(xvel);
+			}
+			finally
+			{
+				if (SwipeTrace.ENABLED)
+				{
+					SwipeTrace.end();
+				}
+			}
+		}
 
-			int halfWidth = (int) (getMeasuredWidth() / 2.2);
-			Log.i(TAG, "halfWidth " + halfWidth);
+		private void handleRelease(float xvel)
+		{
+			if (SwipeTrace.ENABLED)
+			{
+				SwipeTrace.log(TAG, "fullSwipeThreshold ", mFullSwipeThreshold);
+				SwipeTrace.log(TAG, "mMainView.getLeft() ", mMainView.getLeft());
+			}
 
-			final int pivotHorizontal = getHalfwayPivotHorizontal();
+			final int release = SwipeRelease.resolve(mDragEdge, mMainView.getLeft(), mMainView.getRight(), xvel,
+					mMinFlingVelocity, mFullSwipeThreshold, mHalfwayPivot);
 
-			switch (mDragEdge)
+			switch (release)
 			{
-				case RIGHT:
-					int right = mMainView.getRight();
-					Log.d(TAG, "mMainView.getRight() " + right);
-					if (right > halfWidth) // HalfSwipe
-					{
-						if (velLeftExceeded || right < pivotHorizontal)
-						{
-							open(true);
-							notifyOnHalfSwipe(true);
-							return;
-						}
-
-						close(true);
-						notifyOnHalfSwipe(false);
-					}
-					else
-					{
-						// FullSwipe
-						handleFullSwipe(mRectMainClose.left - mRectMainClose.right);
-					}
+				case SwipeRelease.OPEN:
+					open(true);
+					notifyOnHalfSwipe(true);
 					break;
-				case LEFT:
-					int left = mMainView.getLeft();
-					Log.d(TAG, "mMainView.getLeft() " + left);
-					if (left < halfWidth) // HalfSwipe
-					{
-						if (velRightExceeded || left > pivotHorizontal)
-						{
-							open(true);
-							notifyOnHalfSwipe(true);
-							return;
-						}
-						close(true);
-						notifyOnHalfSwipe(false);
-					}
-					else
-					{
-						// FullSwipe
-						handleFullSwipe(mRectMainClose.left + mRectMainClose.right);
-					}
+
+				case SwipeRelease.CLOSE:
+					close(true);
+					notifyOnHalfSwipe(false);
+					break;
+
+				case SwipeRelease.FULL_SWIPE:
+					handleFullSwipe((mDragEdge == DragEdge.RIGHT)
+							? mRectMainClose.left - mRectMainClose.right
+							: mRectMainClose.left + mRectMainClose.right);
 					break;
 			}
 		}
 
 		private void handleFullSwipe(final int finalLeft)
 		{
-			mDragHelper.abort();
-			mDragHelper.smoothSlideViewTo(mMainView, finalLeft, mRectMainClose.top);
-			ViewCompat.postInvalidateOnAnimation(SwipeableLayout.this);
-			mHandler.postDelayed(new Runnable()
+			if (mFullSwipeDismissAnimation && mDragHelper.smoothSlideViewTo(mMainView, finalLeft, mRectMainClose.top))
 			{
-				@Override
-				public void run()
-				{
-					close(true);
-					notifyOnFullSwipe(true);
-				}
-			}, 300);
+				mFullSwipePending = true;
+				ViewCompat.postInvalidateOnAnimation(SwipeableLayout.this);
+			}
+			else
+			{
+				completeFullSwipe();
+			}
 		}
 
 		@Override
@@ -661,6 +1410,48 @@ public class SwipeableLayout extends ViewGroup
 		}
 	};
 
+	private void promoteLayers()
+	{
+		if (mPromotedLayers != DRAG_LAYER_NONE || !isHardwareAccelerated())
+		{
+			return;
+		}
+
+		// leave children alone that already use a layer of their own
+		if ((mDragLayerPolicy & DRAG_LAYER_MAIN) != 0 && mMainView.getLayerType() == LAYER_TYPE_NONE)
+		{
+			mMainView.setLayerType(LAYER_TYPE_HARDWARE, null);
+			mPromotedLayers |= DRAG_LAYER_MAIN;
+		}
+
+		if ((mDragLayerPolicy & DRAG_LAYER_SECONDARY) != 0 && mSecondaryView.getLayerType() == LAYER_TYPE_NONE)
+		{
+			mSecondaryView.setLayerType(LAYER_TYPE_HARDWARE, null);
+			mPromotedLayers |= DRAG_LAYER_SECONDARY;
+		}
+	}
+
+	private void demoteLayers()
+	{
+		if ((mPromotedLayers & DRAG_LAYER_MAIN) != 0)
+		{
+			mMainView.setLayerType(LAYER_TYPE_NONE, null);
+		}
+
+		if ((mPromotedLayers & DRAG_LAYER_SECONDARY) != 0)
+		{
+			mSecondaryView.setLayerType(LAYER_TYPE_NONE, null);
+		}
+
+		mPromotedLayers = DRAG_LAYER_NONE;
+	}
+
+	private void completeFullSwipe()
+	{
+		close(true);
+		notifyOnFullSwipe(true);
+	}
+
 	private void notifyOnHalfSwipe(boolean isOpened)
 	{
 		if (mOnSwipeListener != null)
@@ -683,6 +1474,7 @@ public class SwipeableLayout extends ViewGroup
 	{
 		mIsOpenBeforeInit = true;
 		mAborted = false;
+		mFullSwipePending = false;
 
 		if (animation)
 		{
@@ -692,27 +1484,14 @@ public class SwipeableLayout extends ViewGroup
 
 			if (mOnDragStateChangeListener != null)
 			{
-				mOnDragStateChangeListener.onDragStateChanged(mState);
+				mOnDragStateChangeListener.onDragStateChanged(SwipeableLayout.this, mState);
 			}
 		}
 		else
 		{
 			mState = State.OPEN;
 			mDragHelper.abort();
-
-			mMainView.layout(
-					mRectMainOpen.left,
-					mRectMainOpen.top,
-					mRectMainOpen.right,
-					mRectMainOpen.bottom
-			);
-
-			mSecondaryView.layout(
-					mRectSecOpen.left,
-					mRectSecOpen.top,
-					mRectSecOpen.right,
-					mRectSecOpen.bottom
-			);
+			snapMainViewTo(mRectMainOpen.left);
 		}
 
 		ViewCompat.postInvalidateOnAnimation(SwipeableLayout.this);
@@ -722,6 +1501,7 @@ public class SwipeableLayout extends ViewGroup
 	{
 		mIsOpenBeforeInit = false;
 		mAborted = false;
+		mFullSwipePending = false;
 
 		if (animation)
 		{
@@ -730,36 +1510,63 @@ public class SwipeableLayout extends ViewGroup
 
 			if (mOnDragStateChangeListener != null)
 			{
-				mOnDragStateChangeListener.onDragStateChanged(mState);
+				mOnDragStateChangeListener.onDragStateChanged(SwipeableLayout.this, mState);
 			}
 		}
 		else
 		{
 			mState = State.CLOSE;
 			mDragHelper.abort();
-
-			mMainView.layout(
-					mRectMainClose.left,
-					mRectMainClose.top,
-					mRectMainClose.right,
-					mRectMainClose.bottom
-			);
-
-			mSecondaryView.layout(
-					mRectSecClose.left,
-					mRectSecClose.top,
-					mRectSecClose.right,
-					mRectSecClose.bottom
-			);
+			snapMainViewTo(mRectMainClose.left);
 		}
 
 		ViewCompat.postInvalidateOnAnimation(SwipeableLayout.this);
 	}
 
-	private int pxToDp(int px)
+	/**
+	 * Move the main view horizontally without a layout pass, the same way {@link ViewDragHelper} moves it
+	 * while dragging and settling. The secondary view never moves, the main view only uncovers it.
+	 */
+	private void snapMainViewTo(int left)
 	{
-		Resources resources = getContext().getResources();
-		DisplayMetrics metrics = resources.getDisplayMetrics();
-		return (int) (px / ((float) metrics.densityDpi / DisplayMetrics.DENSITY_DEFAULT));
+		final int offset = left - mMainView.getLeft();
+		if (offset != 0)
+		{
+			ViewCompat.offsetLeftAndRight(mMainView, offset);
+			scheduleProgressDispatch();
+		}
+	}
+
+	private void scheduleProgressDispatch()
+	{
+		if (mOnSwipeProgressListener != null && !mProgressDispatchPending)
+		{
+			mProgressDispatchPending = true;
+			ViewCompat.postOnAnimation(this, mDispatchProgressRunnable);
+		}
 	}
+
+	private final Runnable mDispatchProgressRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			mProgressDispatchPending = false;
+			if (mOnSwipeProgressListener == null || mMainView == null)
+			{
+				return;
+			}
+
+			final int offset = Math.abs(mMainView.getLeft() - mRectMainClose.left);
+			if (offset == mLastDispatchedOffset)
+			{
+				return;
+			}
+			mLastDispatchedOffset = offset;
+
+			final int secondaryWidth = getSecondaryWidth();
+			final float progress = secondaryWidth > 0 ? offset / (float) secondaryWidth : 0;
+			mOnSwipeProgressListener.onSwipeProgress(SwipeableLayout.this, offset, progress, mDragEdge);
+		}
+	};
 }
@@ -1,81 +1,227 @@
 package com.ashishdas.example.swipeableitem.layout;
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.RecyclerView;
 
+import java.lang.ref.WeakReference;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.Collection;
 
 public class SwipeableLayoutBinderHelper
 {
-	private static final String BUNDLE_MAP_KEY = "SwipeViewBinderHelper_Bundle_Map_Key";
+	public interface OnStatesChangedListener
+	{
+		/**
+		 * Called on the main thread, at most once per frame, after any row state changed.
+		 */
+		void onStatesChanged(SwipeableLayoutBinderHelper helper);
+	}
+
+	private static final String BUNDLE_IDS_KEY = "SwipeViewBinderHelper_Bundle_Ids_Key";
+	private static final String BUNDLE_STATES_KEY = "SwipeViewBinderHelper_Bundle_States_Key";
+
+	private static final byte CLOSE_STATE = (byte) SwipeableLayout.State.CLOSE.getInt();
 
-	private Map<String, SwipeableLayout.State> mapStates = Collections.synchronizedMap(new HashMap<String, SwipeableLayout.State>());
-	private Map<String, SwipeableLayout> mapLayouts = Collections.synchronizedMap(new HashMap<String, SwipeableLayout>());
-	private Set<String> lockedSwipeSet = Collections.synchronizedSet(new HashSet<String>());
+	private static final int MIN_PURGE_LAYOUTS_AT = 64;
+
+	// all tables are guarded by stateChangeLock. Rows missing from mapStates are CLOSE.
+	private final LruLongByteHashMap mapStates = new LruLongByteHashMap(16);
+	// layouts are held weakly, so that an adapter outliving its list does not keep the views alive
+	private final LongObjectHashMap<WeakReference<SwipeableLayout>> mapLayouts = new LongObjectHashMap<>(32);
+	private int purgeLayoutsAt = MIN_PURGE_LAYOUTS_AT;
+	private final LongHashSet lockedSwipeSet = new LongHashSet(8);
+
+	// ids whose state is OPEN or OPENING, kept in sync with mapStates by setState()
+	private final LongHashSet openIds = new LongHashSet(8);
+	private long[] scratchIds = new long[8];
+
+	// retention of mapStates, 0 means unbounded
+	private int maxRetainedStates = 0;
+	private int peakRetainedStates = 0;
+	private long evictedStates = 0;
+	private long[] evictionScratch = new long[8];
 
 	private volatile boolean openOnlyOne = false;
+	private volatile SwipeConfig swipeConfig;
 	private final Object stateChangeLock = new Object();
 
+	// list this helper suppresses swiping for while it flings, main thread only
+	private RecyclerView recyclerView;
+	private boolean listSettling = false;
+
+	// state change notifications, coalesced until the next frame. Guarded by stateChangeLock.
+	private OnStatesChangedListener onStatesChangedListener;
+	private boolean statesChangedPending = false;
+	private Handler mainHandler;
+
+	private final Runnable dispatchStatesChanged = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			final OnStatesChangedListener listener;
+			synchronized (stateChangeLock)
+			{
+				statesChangedPending = false;
+				listener = onStatesChangedListener;
+			}
+
+			if (listener != null)
+			{
+				listener.onStatesChanged(SwipeableLayoutBinderHelper.this);
+			}
+		}
+	};
+
+	private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener()
+	{
+		@Override
+		public void onScrollStateChanged(RecyclerView recyclerView, int newState)
+		{
+			setListSettling(newState == RecyclerView.SCROLL_STATE_SETTLING);
+		}
+	};
+
+	// shared by every bound layout, the row id is read from the layout itself
+	private final SwipeableLayout.OnDragStateChangeListener dragStateChangeListener = new SwipeableLayout.OnDragStateChangeListener()
+	{
+		@Override
+		public void onDragStateChanged(SwipeableLayout layout, SwipeableLayout.State state)
+		{
+			final long id;
+			synchronized (stateChangeLock)
+			{
+				id = layout.getBoundId();
+				setState(id, state);
+			}
+
+			// a row cannot slide open while the list flings, applyLayoutState() snaps programmatic opens
+			// meanwhile, so only an open released by the user is reported here
+			if (listSettling && state == SwipeableLayout.State.OPENING)
+			{
+				closeImmediately(id, layout);
+				return;
+			}
+
+			// only a row that opens can push the open count above one.
+			if (openOnlyOne && isOpenState(state.getInt()))
+			{
+				closeOthers(id, layout);
+			}
+		}
+	};
+
+	/**
+	 * String based variant of {@link #bind(SwipeableLayout, long)}, the id is hashed to 64 bits.
+	 */
 	public void bind(final SwipeableLayout swipeLayout, final String id)
 	{
-		if (swipeLayout.shouldRequestLayout())
+		bind(swipeLayout, toLongId(id));
+	}
+
+	/**
+	 * @param id a long that uniquely defines the data object, e.g. a stable adapter item id.
+	 */
+	public void bind(final SwipeableLayout swipeLayout, final long id)
+	{
+		if (SwipeTrace.ENABLED)
 		{
-			swipeLayout.requestLayout();
+			SwipeTrace.begin(SwipeTrace.BIND);
 		}
 
-		mapLayouts.values().remove(swipeLayout);
-		mapLayouts.put(id, swipeLayout);
+		try
+		{
+			bindLayout(swipeLayout, id);
+		}
+		finally
+		{
+			if (SwipeTrace.ENABLED)
+			{
+				SwipeTrace.end();
+			}
+		}
+	}
 
-		swipeLayout.abort();
-		swipeLayout.setOnDragStateChangeListener(new SwipeableLayout.OnDragStateChangeListener()
+	private void bindLayout(SwipeableLayout swipeLayout, long id)
+	{
+		final SwipeableLayout.State state;
+		final boolean locked;
+		synchronized (stateChangeLock)
 		{
-			@Override
-			public void onDragStateChanged(SwipeableLayout.State state)
+			// a recycled layout still maps from its previous id, drop that mapping first.
+			if (swipeLayout.isBound() && getLayout(swipeLayout.getBoundId()) == swipeLayout)
 			{
-				mapStates.put(id, state);
+				mapLayouts.remove(swipeLayout.getBoundId());
+			}
+			mapLayouts.put(id, swipeLayout.getWeakReference());
+			swipeLayout.setBoundId(id);
 
-				if (openOnlyOne)
-				{
-					closeOthers(id, swipeLayout);
-				}
+			if (mapLayouts.size() >= purgeLayoutsAt)
+			{
+				purgeCollectedLayouts();
 			}
-		});
 
-		// first time binding.
-		if (!mapStates.containsKey(id))
+			state = normalizeState(id, SwipeableLayout.State.fromInt(mapStates.getAndTouch(id, CLOSE_STATE)));
+			locked = lockedSwipeSet.contains(id);
+		}
+
+		swipeLayout.abort();
+		swipeLayout.setOnDragStateChangeListener(dragStateChangeListener);
+
+		// close or open depends on the current state, unknown rows are closed.
+		if (state == SwipeableLayout.State.CLOSE)
 		{
-			mapStates.put(id, SwipeableLayout.State.CLOSE);
 			swipeLayout.close(false);
 		}
-
-		// not the first time, then close or open depends on the current state.
 		else
 		{
-			SwipeableLayout.State state = mapStates.get(id);
+			swipeLayout.open(false);
+		}
+
+		// set lock swipe
+		swipeLayout.setLockDrag(locked);
+		swipeLayout.setSwipeSuppressed(listSettling);
+
+		if (swipeConfig != null)
+		{
+			swipeLayout.setSwipeConfig(swipeConfig);
+		}
+	}
 
-			if (state == SwipeableLayout.State.CLOSE
-					|| state == SwipeableLayout.State.CLOSING
-					|| state == SwipeableLayout.State.DRAGGING)
+	/**
+	 * Release the layout, e.g. from {@link RecyclerView.Adapter#onViewRecycled(RecyclerView.ViewHolder)}.
+	 * The state of its row is kept. Layouts that are never unbound are released once they are garbage
+	 * collected.
+	 */
+	public void unbind(final SwipeableLayout swipeLayout)
+	{
+		synchronized (stateChangeLock)
+		{
+			if (!swipeLayout.isBound())
 			{
-				swipeLayout.close(false);
+				return;
 			}
-			else
+
+			if (getLayout(swipeLayout.getBoundId()) == swipeLayout)
 			{
-				swipeLayout.open(false);
+				mapLayouts.remove(swipeLayout.getBoundId());
 			}
+			swipeLayout.clearBoundId();
 		}
 
-		// set lock swipe
-		swipeLayout.setLockDrag(lockedSwipeSet.contains(id));
+		swipeLayout.abort();
+		swipeLayout.setOnDragStateChangeListener(null);
+		swipeLayout.setSwipeSuppressed(false);
 	}
 
 	/**
 	 * Only if you need to restore open/close state when the orientation is changed.
 	 * Call this method in {@link android.app.Activity#onSaveInstanceState(Bundle)}
+	 * <p>
+	 * Only rows that are not closed are written, as two parallel arrays of ids and state codes.
 	 */
 	public void saveStates(Bundle outState)
 	{
@@ -84,12 +230,26 @@ public class SwipeableLayoutBinderHelper
 			return;
 		}
 
-		Bundle statesBundle = new Bundle();
-		for (Map.Entry<String, SwipeableLayout.State> entry : mapStates.entrySet())
+		final long[] ids;
+		final byte[] states;
+		synchronized (stateChangeLock)
 		{
-			statesBundle.putInt(entry.getKey(), entry.getValue().getInt());
+			ids = new long[mapStates.size()];
+			states = new byte[ids.length];
+
+			int index = 0;
+			for (int slot = 0; slot < mapStates.capacity(); slot++)
+			{
+				if (mapStates.isSlotUsed(slot))
+				{
+					ids[index] = mapStates.keyAt(slot);
+					states[index] = mapStates.valueAt(slot);
+					index++;
+				}
+			}
 		}
-		outState.putBundle(BUNDLE_MAP_KEY, statesBundle);
+		outState.putLongArray(BUNDLE_IDS_KEY, ids);
+		outState.putByteArray(BUNDLE_STATES_KEY, states);
 	}
 
 
@@ -97,7 +257,6 @@ public class SwipeableLayoutBinderHelper
 	 * Only if you need to restore open/close state when the orientation is changed.
 	 * Call this method in {@link android.app.Activity#onRestoreInstanceState(Bundle)}
 	 */
-	@SuppressWarnings({"unchecked", "ConstantConditions"})
 	public void restoreStates(Bundle inState)
 	{
 		if (inState == null)
@@ -105,22 +264,21 @@ public class SwipeableLayoutBinderHelper
 			return;
 		}
 
-		if (inState.containsKey(BUNDLE_MAP_KEY))
-		{
-			HashMap<String, SwipeableLayout.State> restoredMap = new HashMap<>();
-
-			Bundle statesBundle = inState.getBundle(BUNDLE_MAP_KEY);
-			Set<String> keySet = statesBundle.keySet();
+		final long[] ids = inState.getLongArray(BUNDLE_IDS_KEY);
+		final byte[] states = inState.getByteArray(BUNDLE_STATES_KEY);
 
-			if (keySet != null)
+		if (ids != null && states != null && ids.length == states.length)
+		{
+			synchronized (stateChangeLock)
 			{
-				for (String key : keySet)
+				mapStates.clear();
+				openIds.clear();
+
+				for (int i = 0; i < ids.length; i++)
 				{
-					restoredMap.put(key, SwipeableLayout.State.fromInt(statesBundle.getInt(key)));
+					setState(ids[i], SwipeableLayout.State.fromInt(states[i]));
 				}
 			}
-
-			mapStates = restoredMap;
 		}
 	}
 
@@ -130,6 +288,16 @@ public class SwipeableLayoutBinderHelper
 	 * @param id a string that uniquely defines the data object.
 	 */
 	public void lockSwipe(String... id)
+	{
+		setLockSwipe(true, toLongIds(id));
+	}
+
+	/**
+	 * Lock swipe for some layouts.
+	 *
+	 * @param id a long that uniquely defines the data object.
+	 */
+	public void lockSwipe(long... id)
 	{
 		setLockSwipe(true, id);
 	}
@@ -140,6 +308,16 @@ public class SwipeableLayoutBinderHelper
 	 * @param id a string that uniquely defines the data object.
 	 */
 	public void unlockSwipe(String... id)
+	{
+		setLockSwipe(false, toLongIds(id));
+	}
+
+	/**
+	 * Unlock swipe for some layouts.
+	 *
+	 * @param id a long that uniquely defines the data object.
+	 */
+	public void unlockSwipe(long... id)
 	{
 		setLockSwipe(false, id);
 	}
@@ -153,128 +331,745 @@ public class SwipeableLayoutBinderHelper
 	}
 
 	/**
-	 * Open a specific layout.
+	 * Apply swipe thresholds to the layouts bound now and to every layout bound later. Call from the main thread.
 	 *
-	 * @param id unique id which identifies the data object which is bind to the layout.
+	 * @param config the thresholds, or null to stop applying them. Layouts then keep the config they have.
 	 */
-	public void openLayout(final String id)
+	public void setSwipeConfig(SwipeConfig config)
 	{
-		synchronized (stateChangeLock)
+		swipeConfig = config;
+		if (config == null)
 		{
-			mapStates.put(id, SwipeableLayout.State.OPEN);
+			return;
+		}
 
-			if (mapLayouts.containsKey(id))
+		synchronized (stateChangeLock)
+		{
+			for (int slot = 0, capacity = mapLayouts.capacity(); slot < capacity; slot++)
 			{
-				final SwipeableLayout layout = mapLayouts.get(id);
-				layout.open(true);
+				final SwipeableLayout layout = mapLayouts.isSlotUsed(slot) ? mapLayouts.valueAt(slot).get() : null;
+				if (layout != null)
+				{
+					layout.setSwipeConfig(config);
+				}
 			}
-			else if (openOnlyOne)
+		}
+	}
+
+	/**
+	 * Bound the number of retained row states, for endless lists. Closed rows are never stored. When more
+	 * rows than the limit are open, the least recently used ones that are not bound to a layout are
+	 * evicted, down to three quarters of the limit, and fall back to CLOSE.
+	 *
+	 * @param maxStates maximum number of retained states, or 0 for no limit (the default).
+	 */
+	public void setMaxRetainedStates(int maxStates)
+	{
+		synchronized (stateChangeLock)
+		{
+			maxRetainedStates = Math.max(maxStates, 0);
+			if (maxRetainedStates > 0 && mapStates.size() > maxRetainedStates)
 			{
-				closeOthers(id, mapLayouts.get(id));
+				evictStates(Long.MIN_VALUE, false);
 			}
 		}
 	}
 
+	/**
+	 * @return number of row states currently retained.
+	 */
+	public int getRetainedStateCount()
+	{
+		synchronized (stateChangeLock)
+		{
+			return mapStates.size();
+		}
+	}
+
+	/**
+	 * @return highest number of row states retained at once.
+	 */
+	public int getPeakRetainedStateCount()
+	{
+		synchronized (stateChangeLock)
+		{
+			return peakRetainedStates;
+		}
+	}
+
+	/**
+	 * @return number of row states dropped because of {@link #setMaxRetainedStates(int)}.
+	 */
+	public long getEvictedStateCount()
+	{
+		synchronized (stateChangeLock)
+		{
+			return evictedStates;
+		}
+	}
+
+	/**
+	 * Open a specific layout.
+	 *
+	 * @param id unique id which identifies the data object which is bind to the layout.
+	 */
+	public void openLayout(final String id)
+	{
+		openLayout(toLongId(id));
+	}
+
+	/**
+	 * Open a specific layout.
+	 *
+	 * @param id unique id which identifies the data object which is bind to the layout.
+	 */
+	public void openLayout(final long id)
+	{
+		synchronized (stateChangeLock)
+		{
+			applyLayoutState(id, true);
+		}
+	}
+
 	/**
 	 * Close a specific layout.
 	 *
 	 * @param id unique id which identifies the data object which is bind to the layout.
 	 */
 	public void closeLayout(final String id)
+	{
+		closeLayout(toLongId(id));
+	}
+
+	/**
+	 * Close a specific layout.
+	 *
+	 * @param id unique id which identifies the data object which is bind to the layout.
+	 */
+	public void closeLayout(final long id)
+	{
+		synchronized (stateChangeLock)
+		{
+			applyLayoutState(id, false);
+		}
+	}
+
+	/**
+	 * Open several layouts in one pass. Attached layouts animate, the other bound ones are snapped open.
+	 * With {@link #setOpenOnlyOne(boolean)} only the last id is opened.
+	 *
+	 * @param id unique ids which identify the data objects bound to the layouts.
+	 */
+	public void openLayouts(String... id)
+	{
+		setLayoutStates(true, toLongIds(id));
+	}
+
+	/**
+	 * See {@link #openLayouts(String...)}.
+	 */
+	public void openLayouts(long... id)
+	{
+		setLayoutStates(true, id);
+	}
+
+	/**
+	 * See {@link #openLayouts(String...)}.
+	 */
+	public void openLayouts(Collection<String> ids)
+	{
+		setLayoutStates(true, toLongIds(ids));
+	}
+
+	/**
+	 * See {@link #openLayouts(String...)}.
+	 *
+	 * @param fromId first id, inclusive, e.g. an adapter position when positions are used as ids.
+	 * @param toId   last id, exclusive.
+	 */
+	public void openLayoutRange(long fromId, long toId)
+	{
+		setLayoutRangeStates(true, fromId, toId);
+	}
+
+	/**
+	 * Close several layouts in one pass. Attached layouts animate, the other bound ones are snapped closed.
+	 *
+	 * @param id unique ids which identify the data objects bound to the layouts.
+	 */
+	public void closeLayouts(String... id)
+	{
+		setLayoutStates(false, toLongIds(id));
+	}
+
+	/**
+	 * See {@link #closeLayouts(String...)}.
+	 */
+	public void closeLayouts(long... id)
+	{
+		setLayoutStates(false, id);
+	}
+
+	/**
+	 * See {@link #closeLayouts(String...)}.
+	 */
+	public void closeLayouts(Collection<String> ids)
+	{
+		setLayoutStates(false, toLongIds(ids));
+	}
+
+	/**
+	 * See {@link #closeLayouts(String...)}.
+	 *
+	 * @param fromId first id, inclusive.
+	 * @param toId   last id, exclusive.
+	 */
+	public void closeLayoutRange(long fromId, long toId)
+	{
+		setLayoutRangeStates(false, fromId, toId);
+	}
+
+	/**
+	 * @param listener notified once per frame after row states changed, or null.
+	 */
+	public void setOnStatesChangedListener(OnStatesChangedListener listener)
 	{
 		synchronized (stateChangeLock)
 		{
-			mapStates.put(id, SwipeableLayout.State.CLOSE);
+			onStatesChangedListener = listener;
+		}
+	}
+
+	/**
+	 * Suppress swiping of all bound layouts while the list is flinging, rows that start opening meanwhile are
+	 * closed without animation. Call from the main thread, e.g. in
+	 * {@link RecyclerView.Adapter#onAttachedToRecyclerView(RecyclerView)}.
+	 *
+	 * @param recyclerView the list showing the layouts, or null to detach from the current one.
+	 */
+	public void attachToRecyclerView(RecyclerView recyclerView)
+	{
+		if (this.recyclerView == recyclerView)
+		{
+			return;
+		}
 
-			if (mapLayouts.containsKey(id))
+		if (this.recyclerView != null)
+		{
+			this.recyclerView.removeOnScrollListener(scrollListener);
+
+			// a notification waiting for a frame of the old list would wait until it is attached again
+			synchronized (stateChangeLock)
 			{
-				final SwipeableLayout layout = mapLayouts.get(id);
-				layout.close(true);
+				if (statesChangedPending)
+				{
+					this.recyclerView.removeCallbacks(dispatchStatesChanged);
+					getMainHandler().post(dispatchStatesChanged);
+				}
 			}
 		}
+
+		this.recyclerView = recyclerView;
+		if (recyclerView != null)
+		{
+			recyclerView.addOnScrollListener(scrollListener);
+		}
+		setListSettling(recyclerView != null && recyclerView.getScrollState() == RecyclerView.SCROLL_STATE_SETTLING);
 	}
 
 	/**
-	 * Close all.
+	 * Close all. Only layouts on screen animate, the other bound ones are snapped closed and rows without a
+	 * layout only change state.
 	 */
 	public void closeAll()
 	{
 		synchronized (stateChangeLock)
 		{
-			// close other rows if openOnlyOne is true.
-			if (getOpenCount() > 0)
+			final int count = snapshotOpenIds();
+			for (int i = 0; i < count; i++)
 			{
-				for (SwipeableLayout layout : mapLayouts.values())
+				final long openId = scratchIds[i];
+				setState(openId, SwipeableLayout.State.CLOSE);
+
+				final SwipeableLayout layout = getLayout(openId);
+				if (layout != null)
 				{
-					layout.close(true);
+					layout.close(isOnScreen(layout));
 				}
 			}
 		}
 	}
 
-	private void closeOthers(String id, SwipeableLayout swipeLayout)
+	/**
+	 * Maps a string id onto the 64-bit id space (FNV-1a), so that the string based API shares the
+	 * primitive tables without allocating.
+	 */
+	static long toLongId(String id)
+	{
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0, n = id.length(); i < n; i++)
+		{
+			hash ^= id.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private static long[] toLongIds(Collection<String> ids)
+	{
+		if (ids == null)
+		{
+			return null;
+		}
+
+		final long[] longIds = new long[ids.size()];
+		int i = 0;
+		for (String id : ids)
+		{
+			longIds[i++] = toLongId(id);
+		}
+		return longIds;
+	}
+
+	private static long[] toLongIds(String... id)
+	{
+		if (id == null)
+		{
+			return null;
+		}
+
+		final long[] ids = new long[id.length];
+		for (int i = 0; i < id.length; i++)
+		{
+			ids[i] = toLongId(id[i]);
+		}
+		return ids;
+	}
+
+	private void closeOthers(long id, SwipeableLayout swipeLayout)
 	{
 		synchronized (stateChangeLock)
 		{
 			// close other rows if openOnlyOne is true.
-			if (getOpenCount() > 1)
+			if (openIds.size() > 1)
 			{
-				for (Map.Entry<String, SwipeableLayout.State> entry : mapStates.entrySet())
+				final int count = snapshotOpenIds();
+				for (int i = 0; i < count; i++)
 				{
-					if (!entry.getKey().equals(id))
+					final long openId = scratchIds[i];
+					if (openId == id)
 					{
-						entry.setValue(SwipeableLayout.State.CLOSE);
+						continue;
 					}
-				}
 
-				for (SwipeableLayout layout : mapLayouts.values())
-				{
-					if (layout != swipeLayout)
+					setState(openId, SwipeableLayout.State.CLOSE);
+
+					final SwipeableLayout layout = getLayout(openId);
+					if (layout != null && layout != swipeLayout)
 					{
-						layout.close(true);
+						layout.close(isOnScreen(layout));
 					}
 				}
 			}
 		}
 	}
 
-	private void setLockSwipe(boolean lock, String... id)
+	private void setLockSwipe(boolean lock, long... id)
 	{
 		if (id == null || id.length == 0)
 		{
 			return;
 		}
 
-		if (lock)
+		synchronized (stateChangeLock)
+		{
+			for (long l : id)
+			{
+				if (lock)
+				{
+					lockedSwipeSet.add(l);
+				}
+				else
+				{
+					lockedSwipeSet.remove(l);
+				}
+
+				SwipeableLayout layout = getLayout(l);
+				if (layout != null)
+				{
+					layout.setLockDrag(lock);
+				}
+			}
+		}
+	}
+
+	private void setLayoutStates(boolean open, long... id)
+	{
+		if (id == null || id.length == 0)
+		{
+			return;
+		}
+
+		synchronized (stateChangeLock)
+		{
+			if (open && openOnlyOne)
+			{
+				applyLayoutState(id[id.length - 1], true);
+				return;
+			}
+
+			for (long layoutId : id)
+			{
+				applyLayoutState(layoutId, open);
+			}
+		}
+	}
+
+	private void setLayoutRangeStates(boolean open, long fromId, long toId)
+	{
+		if (fromId >= toId)
+		{
+			return;
+		}
+
+		synchronized (stateChangeLock)
+		{
+			if (open && openOnlyOne)
+			{
+				applyLayoutState(toId - 1, true);
+				return;
+			}
+
+			for (long layoutId = fromId; layoutId < toId; layoutId++)
+			{
+				applyLayoutState(layoutId, open);
+			}
+		}
+	}
+
+	/**
+	 * Caller holds stateChangeLock. Only layouts on screen animate, an animated open of an attached layout
+	 * reports back through the drag state listener, which also closes other rows with openOnlyOne. While the
+	 * list flings opens are snapped, an animated one would be reverted by the drag state listener.
+	 */
+	private void applyLayoutState(long id, boolean open)
+	{
+		setState(id, open ? SwipeableLayout.State.OPEN : SwipeableLayout.State.CLOSE);
+
+		final SwipeableLayout layout = getLayout(id);
+		if (layout == null)
+		{
+			if (open && openOnlyOne)
+			{
+				closeOthers(id, null);
+			}
+			return;
+		}
+
+		final boolean animate = isOnScreen(layout) && !(open && listSettling);
+		if (open)
+		{
+			layout.open(animate);
+			if (!animate && openOnlyOne)
+			{
+				closeOthers(id, layout);
+			}
+		}
+		else
+		{
+			layout.close(animate);
+		}
+	}
+
+	/**
+	 * Layouts in the recycler cache or pool are detached from the window. They get no animation frames, so an
+	 * animated open or close would never settle there and is replaced by a snap.
+	 */
+	private static boolean isOnScreen(SwipeableLayout layout)
+	{
+		return ViewCompat.isAttachedToWindow(layout);
+	}
+
+	private void setListSettling(boolean settling)
+	{
+		if (listSettling == settling)
+		{
+			return;
+		}
+		listSettling = settling;
+
+		synchronized (stateChangeLock)
+		{
+			for (int slot = 0, capacity = mapLayouts.capacity(); slot < capacity; slot++)
+			{
+				final SwipeableLayout layout = mapLayouts.isSlotUsed(slot) ? mapLayouts.valueAt(slot).get() : null;
+				if (layout != null)
+				{
+					layout.setSwipeSuppressed(settling);
+				}
+			}
+
+			if (!settling)
+			{
+				return;
+			}
+
+			final int count = snapshotOpenIds();
+			for (int i = 0; i < count; i++)
+			{
+				final long openId = scratchIds[i];
+				if (mapStates.get(openId, CLOSE_STATE) == SwipeableLayout.State.OPENING.getInt())
+				{
+					closeImmediately(openId, getLayout(openId));
+				}
+			}
+		}
+	}
+
+	private void closeImmediately(long id, SwipeableLayout layout)
+	{
+		synchronized (stateChangeLock)
+		{
+			setState(id, SwipeableLayout.State.CLOSE);
+		}
+
+		// a close without animation does not report back through the drag state listener
+		if (layout != null)
+		{
+			layout.close(false);
+		}
+	}
+
+	/**
+	 * A layout aborted in the middle of a motion (recycled, unbound or bound again) never reports where it
+	 * ended, store the state it is snapped to instead. Caller holds stateChangeLock.
+	 *
+	 * @return CLOSE or OPEN.
+	 */
+	private SwipeableLayout.State normalizeState(long id, SwipeableLayout.State state)
+	{
+		switch (state)
+		{
+			case CLOSING:
+			case DRAGGING:
+				setState(id, SwipeableLayout.State.CLOSE);
+				return SwipeableLayout.State.CLOSE;
+
+			case OPENING:
+				setState(id, SwipeableLayout.State.OPEN);
+				return SwipeableLayout.State.OPEN;
+
+			default:
+				return state;
+		}
+	}
+
+	/**
+	 * Single write path for row states, keeps {@link #openIds} up to date. Caller holds stateChangeLock.
+	 */
+	private void setState(long id, SwipeableLayout.State state)
+	{
+		scheduleStatesChanged();
+
+		if (state == SwipeableLayout.State.CLOSE)
+		{
+			mapStates.remove(id);
+			openIds.remove(id);
+			return;
+		}
+
+		mapStates.put(id, (byte) state.getInt());
+
+		if (isOpenState(state.getInt()))
 		{
-			lockedSwipeSet.addAll(Arrays.asList(id));
+			openIds.add(id);
 		}
 		else
 		{
-			lockedSwipeSet.removeAll(Arrays.asList(id));
+			openIds.remove(id);
+		}
+
+		peakRetainedStates = Math.max(peakRetainedStates, mapStates.size());
+		if (maxRetainedStates > 0 && mapStates.size() > maxRetainedStates)
+		{
+			evictStates(id, true);
+		}
+	}
+
+	/**
+	 * Caller holds stateChangeLock. Posted to the next animation frame of the attached list when called on
+	 * the main thread and the list is attached to a window, to the main thread otherwise.
+	 */
+	private void scheduleStatesChanged()
+	{
+		if (onStatesChangedListener == null || statesChangedPending)
+		{
+			return;
+		}
+		statesChangedPending = true;
+
+		// a list detached from its window keeps posted runnables until it is attached again
+		final RecyclerView list = recyclerView;
+		if (list != null && Looper.myLooper() == Looper.getMainLooper() && ViewCompat.isAttachedToWindow(list))
+		{
+			ViewCompat.postOnAnimation(list, dispatchStatesChanged);
+		}
+		else
+		{
+			getMainHandler().post(dispatchStatesChanged);
+		}
+	}
+
+	private Handler getMainHandler()
+	{
+		if (mainHandler == null)
+		{
+			mainHandler = new Handler(Looper.getMainLooper());
+		}
+		return mainHandler;
+	}
+
+	/**
+	 * Drop the least recently used states that are not bound to a layout, down to three quarters of
+	 * {@link #maxRetainedStates} so that eviction cost is amortized. Caller holds stateChangeLock.
+	 *
+	 * @param keepId id that must not be evicted, only honoured when hasKeepId is true.
+	 */
+	private void evictStates(long keepId, boolean hasKeepId)
+	{
+		if (evictionScratch.length < mapStates.size())
+		{
+			evictionScratch = new long[Math.max(mapStates.size(), evictionScratch.length * 2)];
 		}
 
-		for (String s : id)
+		// collect the access stamps of all evictable entries
+		int candidates = 0;
+		for (int slot = 0; slot < mapStates.capacity(); slot++)
 		{
-			SwipeableLayout layout = mapLayouts.get(s);
-			if (layout != null)
+			if (isEvictable(slot, keepId, hasKeepId))
 			{
-				layout.setLockDrag(lock);
+				evictionScratch[candidates++] = mapStates.stampAt(slot);
 			}
 		}
+
+		final int excess = Math.min(mapStates.size() - (maxRetainedStates - maxRetainedStates / 4), candidates);
+		if (excess <= 0)
+		{
+			return;
+		}
+
+		Arrays.sort(evictionScratch, 0, candidates);
+		final long newestEvicted = evictionScratch[excess - 1];
+
+		// removing shifts entries between slots, so collect the keys before removing them
+		int count = 0;
+		for (int slot = 0; slot < mapStates.capacity(); slot++)
+		{
+			if (isEvictable(slot, keepId, hasKeepId) && mapStates.stampAt(slot) <= newestEvicted)
+			{
+				evictionScratch[count++] = mapStates.keyAt(slot);
+			}
+		}
+
+		for (int i = 0; i < count; i++)
+		{
+			mapStates.remove(evictionScratch[i]);
+			openIds.remove(evictionScratch[i]);
+		}
+		evictedStates += count;
 	}
 
-	private int getOpenCount()
+	private boolean isEvictable(int slot, long keepId, boolean hasKeepId)
+	{
+		if (!mapStates.isSlotUsed(slot))
+		{
+			return false;
+		}
+
+		final long id = mapStates.keyAt(slot);
+		if (hasKeepId && id == keepId)
+		{
+			return false;
+		}
+
+		final WeakReference<SwipeableLayout> ref = mapLayouts.get(id);
+		return ref == null || ref.get() == null;
+	}
+
+	private static boolean isOpenState(int state)
+	{
+		return state == SwipeableLayout.State.OPEN.getInt() || state == SwipeableLayout.State.OPENING.getInt();
+	}
+
+	/**
+	 * @return the live layout bound to the id, or null. A collected layout is dropped on the way.
+	 * Caller holds stateChangeLock.
+	 */
+	private SwipeableLayout getLayout(long id)
 	{
-		int total = 0;
+		final WeakReference<SwipeableLayout> ref = mapLayouts.get(id);
+		if (ref == null)
+		{
+			return null;
+		}
+
+		final SwipeableLayout layout = ref.get();
+		if (layout == null)
+		{
+			mapLayouts.remove(id);
+		}
+		return layout;
+	}
+
+	/**
+	 * Drop the entries of collected layouts, so that the table stays bounded by the number of live views.
+	 * Runs when the table has doubled since the last sweep. Caller holds stateChangeLock.
+	 */
+	private void purgeCollectedLayouts()
+	{
+		if (scratchIds.length < mapLayouts.size())
+		{
+			scratchIds = new long[Math.max(mapLayouts.size(), scratchIds.length * 2)];
+		}
+
+		int count = 0;
+		for (int slot = 0; slot < mapLayouts.capacity(); slot++)
+		{
+			if (mapLayouts.isSlotUsed(slot) && mapLayouts.valueAt(slot).get() == null)
+			{
+				scratchIds[count++] = mapLayouts.keyAt(slot);
+			}
+		}
+
+		for (int i = 0; i < count; i++)
+		{
+			mapLayouts.remove(scratchIds[i]);
+		}
+
+		purgeLayoutsAt = Math.max(MIN_PURGE_LAYOUTS_AT, mapLayouts.size() * 2);
+	}
+
+	/**
+	 * Copy the open ids into {@link #scratchIds}, so rows can be closed while iterating.
+	 * Caller holds stateChangeLock.
+	 *
+	 * @return number of ids copied.
+	 */
+	private int snapshotOpenIds()
+	{
+		if (scratchIds.length < openIds.size())
+		{
+			scratchIds = new long[Math.max(openIds.size(), scratchIds.length * 2)];
+		}
 
-		for (SwipeableLayout.State state : mapStates.values())
+		int count = 0;
+		for (int slot = 0; slot < openIds.capacity(); slot++)
 		{
-			if (state == SwipeableLayout.State.OPEN || state == SwipeableLayout.State.OPENING)
+			if (openIds.isSlotUsed(slot))
 			{
-				total++;
+				scratchIds[count++] = openIds.keyAt(slot);
 			}
 		}
-		return total;
+		return count;
 	}
 }
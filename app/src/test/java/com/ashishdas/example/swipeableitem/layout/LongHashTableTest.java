@@ -0,0 +1,212 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the open-addressing tables against the java.util collections. Keys are drawn from a small range so
+ * that probe chains collide, wrap around and get shifted back by removals.
+ */
+public class LongHashTableTest
+{
+	private static final int OPERATIONS = 200000;
+	private static final int KEY_RANGE = 512;
+
+	@Test
+	public void byteMapMatchesHashMap()
+	{
+		final Random random = new Random(42);
+		final LongByteHashMap map = new LongByteHashMap(4);
+		final Map<Long, Byte> expected = new HashMap<>();
+
+		for (int i = 0; i < OPERATIONS; i++)
+		{
+			final long key = randomKey(random);
+			if (random.nextInt(3) == 0)
+			{
+				assertEquals(expected.remove(key) != null, map.remove(key));
+			}
+			else
+			{
+				final byte value = (byte) random.nextInt(5);
+				map.put(key, value);
+				expected.put(key, value);
+			}
+			assertEquals(expected.size(), map.size());
+		}
+
+		for (long key = -KEY_RANGE; key < KEY_RANGE; key++)
+		{
+			final Byte value = expected.get(key);
+			assertEquals(value != null, map.containsKey(key));
+			assertEquals(value != null ? value : (byte) -1, map.get(key, (byte) -1));
+		}
+		assertEquals(expected, toMap(map));
+	}
+
+	@Test
+	public void setMatchesHashSet()
+	{
+		final Random random = new Random(7);
+		final LongHashSet set = new LongHashSet(4);
+		final Set<Long> expected = new HashSet<>();
+
+		for (int i = 0; i < OPERATIONS; i++)
+		{
+			final long key = randomKey(random);
+			if (random.nextBoolean())
+			{
+				assertEquals(expected.add(key), set.add(key));
+			}
+			else
+			{
+				assertEquals(expected.remove(key), set.remove(key));
+			}
+			assertEquals(expected.size(), set.size());
+		}
+
+		for (long key = -KEY_RANGE; key < KEY_RANGE; key++)
+		{
+			assertEquals(expected.contains(key), set.contains(key));
+		}
+	}
+
+	@Test
+	public void objectMapMatchesHashMap()
+	{
+		final Random random = new Random(3);
+		final LongObjectHashMap<String> map = new LongObjectHashMap<>(4);
+		final Map<Long, String> expected = new HashMap<>();
+
+		for (int i = 0; i < OPERATIONS; i++)
+		{
+			final long key = randomKey(random);
+			if (random.nextInt(3) == 0)
+			{
+				assertEquals(expected.remove(key), map.remove(key));
+			}
+			else
+			{
+				final String value = String.valueOf(random.nextInt(100));
+				assertEquals(expected.put(key, value), map.put(key, value));
+			}
+			assertEquals(expected.size(), map.size());
+		}
+
+		for (long key = -KEY_RANGE; key < KEY_RANGE; key++)
+		{
+			assertEquals(expected.get(key), map.get(key));
+		}
+	}
+
+	@Test
+	public void growKeepsEveryEntry()
+	{
+		final LongByteHashMap map = new LongByteHashMap(0);
+		final int initialCapacity = map.capacity();
+
+		for (long key = 0; key < 10000; key++)
+		{
+			map.put(key * 31, (byte) (key % 4 + 1));
+		}
+
+		assertTrue(map.capacity() > initialCapacity);
+		assertEquals(10000, map.size());
+		for (long key = 0; key < 10000; key++)
+		{
+			assertEquals((byte) (key % 4 + 1), map.get(key * 31, (byte) 0));
+		}
+	}
+
+	@Test
+	public void removeShiftsCollidingKeysBack()
+	{
+		final LongObjectHashMap<Long> map = new LongObjectHashMap<>(0);
+
+		// more keys than slots of the initial table would fit, all removed in insertion order
+		for (long key = 0; key < 6; key++)
+		{
+			map.put(key, key);
+		}
+		for (long key = 0; key < 6; key++)
+		{
+			assertEquals(key, (long) map.remove(key));
+			for (long other = key + 1; other < 6; other++)
+			{
+				assertEquals(other, (long) map.get(other));
+			}
+		}
+
+		assertTrue(map.isEmpty());
+		for (int slot = 0; slot < map.capacity(); slot++)
+		{
+			assertFalse(map.isSlotUsed(slot));
+			assertNull(map.valueAt(slot));
+		}
+	}
+
+	@Test
+	public void clearEmptiesEverySlot()
+	{
+		final LongByteHashMap map = new LongByteHashMap(16);
+		for (long key = 0; key < 100; key++)
+		{
+			map.put(key, (byte) 2);
+		}
+
+		map.clear();
+
+		assertTrue(map.isEmpty());
+		assertFalse(map.containsKey(5));
+		assertEquals((byte) 0, map.get(5, (byte) 0));
+		for (int slot = 0; slot < map.capacity(); slot++)
+		{
+			assertFalse(map.isSlotUsed(slot));
+		}
+	}
+
+	@Test
+	public void extremeKeysAreDistinct()
+	{
+		final LongHashSet set = new LongHashSet(4);
+
+		assertTrue(set.add(0));
+		assertTrue(set.add(Long.MIN_VALUE));
+		assertTrue(set.add(Long.MAX_VALUE));
+		assertTrue(set.add(-1));
+		assertFalse(set.add(Long.MIN_VALUE));
+
+		assertEquals(4, set.size());
+		assertTrue(set.remove(Long.MAX_VALUE));
+		assertFalse(set.contains(Long.MAX_VALUE));
+		assertTrue(set.contains(Long.MIN_VALUE));
+	}
+
+	private static long randomKey(Random random)
+	{
+		return random.nextInt(2 * KEY_RANGE) - KEY_RANGE;
+	}
+
+	private static Map<Long, Byte> toMap(LongByteHashMap map)
+	{
+		final Map<Long, Byte> result = new HashMap<>();
+		for (int slot = 0; slot < map.capacity(); slot++)
+		{
+			if (map.isSlotUsed(slot))
+			{
+				result.put(map.keyAt(slot), map.valueAt(slot));
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,88 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LruLongByteHashMapTest
+{
+	@Test
+	public void putAndTouchAdvanceTheStamp()
+	{
+		final LruLongByteHashMap map = new LruLongByteHashMap(8);
+		map.put(1, (byte) 2);
+		map.put(2, (byte) 2);
+		map.put(3, (byte) 2);
+
+		assertTrue(stampOf(map, 1) < stampOf(map, 2));
+		assertTrue(stampOf(map, 2) < stampOf(map, 3));
+
+		assertEquals((byte) 2, map.getAndTouch(1, (byte) 0));
+		assertTrue(stampOf(map, 1) > stampOf(map, 3));
+
+		map.put(2, (byte) 3);
+		assertTrue(stampOf(map, 2) > stampOf(map, 1));
+	}
+
+	@Test
+	public void plainGetAndMissesDoNotTouch()
+	{
+		final LruLongByteHashMap map = new LruLongByteHashMap(8);
+		map.put(1, (byte) 2);
+		map.put(2, (byte) 2);
+		final long stamp = stampOf(map, 1);
+
+		assertEquals((byte) 2, map.get(1, (byte) 0));
+		assertEquals((byte) 0, map.getAndTouch(5, (byte) 0));
+
+		assertEquals(stamp, stampOf(map, 1));
+		assertEquals(2, map.size());
+	}
+
+	@Test
+	public void stampsFollowEntriesThroughRemoveAndGrow()
+	{
+		final LruLongByteHashMap map = new LruLongByteHashMap(0);
+		final Map<Long, Long> stamps = new HashMap<>();
+
+		for (long key = 0; key < 64; key++)
+		{
+			map.put(key, (byte) 2);
+			stamps.put(key, stampOf(map, key));
+		}
+
+		// backward-shift deletion moves entries between slots
+		for (long key = 0; key < 64; key += 3)
+		{
+			map.remove(key);
+			stamps.remove(key);
+		}
+
+		// growing rehashes every entry
+		for (long key = 1000; key < 1200; key++)
+		{
+			map.put(key, (byte) 2);
+		}
+
+		for (Map.Entry<Long, Long> entry : stamps.entrySet())
+		{
+			assertEquals("stamp of " + entry.getKey(), (long) entry.getValue(), stampOf(map, entry.getKey()));
+		}
+	}
+
+	private static long stampOf(LruLongByteHashMap map, long key)
+	{
+		for (int slot = 0; slot < map.capacity(); slot++)
+		{
+			if (map.isSlotUsed(slot) && map.keyAt(slot) == key)
+			{
+				return map.stampAt(slot);
+			}
+		}
+		throw new AssertionError("missing key " + key);
+	}
+}
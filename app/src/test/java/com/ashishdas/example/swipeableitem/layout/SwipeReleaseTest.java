@@ -0,0 +1,90 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A row of 1000 px with a 200 px action area, thresholds as {@link SwipeableLayout} computes them from the
+ * default {@link SwipeConfig} ratios.
+ */
+public class SwipeReleaseTest
+{
+	private static final int WIDTH = 1000;
+	private static final int MENU_WIDTH = 200;
+	private static final int MIN_FLING_VELOCITY = 600;
+
+	private static final int FULL_SWIPE_OFFSET = (int) (WIDTH * SwipeConfig.DEFAULT_FULL_SWIPE_RATIO);
+	private static final int PIVOT_OFFSET = (int) (MENU_WIDTH * SwipeConfig.DEFAULT_HALF_SWIPE_PIVOT_RATIO);
+
+	@Test
+	public void slowReleaseOpensPastThePivot()
+	{
+		assertEquals(SwipeRelease.CLOSE, resolveRight(-(PIVOT_OFFSET - 1), 0));
+		assertEquals(SwipeRelease.OPEN, resolveRight(-(PIVOT_OFFSET + 1), 0));
+
+		assertEquals(SwipeRelease.CLOSE, resolveLeft(PIVOT_OFFSET - 1, 0));
+		assertEquals(SwipeRelease.OPEN, resolveLeft(PIVOT_OFFSET + 1, 0));
+	}
+
+	@Test
+	public void exactlyAtThePivotCloses()
+	{
+		assertEquals(SwipeRelease.CLOSE, resolveRight(-PIVOT_OFFSET, 0));
+		assertEquals(SwipeRelease.CLOSE, resolveLeft(PIVOT_OFFSET, 0));
+	}
+
+	@Test
+	public void flingTowardsTheActionAreaOpensBeforeThePivot()
+	{
+		assertEquals(SwipeRelease.OPEN, resolveRight(-10, -MIN_FLING_VELOCITY));
+		assertEquals(SwipeRelease.OPEN, resolveLeft(10, MIN_FLING_VELOCITY));
+
+		// just below the minimum velocity the position decides
+		assertEquals(SwipeRelease.CLOSE, resolveRight(-10, -(MIN_FLING_VELOCITY - 1)));
+		assertEquals(SwipeRelease.CLOSE, resolveLeft(10, MIN_FLING_VELOCITY - 1));
+	}
+
+	@Test
+	public void flingBackCloses()
+	{
+		assertEquals(SwipeRelease.CLOSE, resolveRight(-10, MIN_FLING_VELOCITY * 2));
+		assertEquals(SwipeRelease.CLOSE, resolveLeft(10, -MIN_FLING_VELOCITY * 2));
+	}
+
+	@Test
+	public void fullSwipeFromTheThresholdOn()
+	{
+		// the right edge of the main view reaches the threshold when it moved WIDTH - threshold
+		final int rightEdgeOffset = WIDTH - FULL_SWIPE_OFFSET;
+		assertEquals(SwipeRelease.OPEN, resolveRight(-(rightEdgeOffset - 1), 0));
+		assertEquals(SwipeRelease.FULL_SWIPE, resolveRight(-rightEdgeOffset, 0));
+		assertEquals(SwipeRelease.FULL_SWIPE, resolveRight(-WIDTH, 0));
+
+		assertEquals(SwipeRelease.OPEN, resolveLeft(FULL_SWIPE_OFFSET - 1, 0));
+		assertEquals(SwipeRelease.FULL_SWIPE, resolveLeft(FULL_SWIPE_OFFSET, 0));
+		assertEquals(SwipeRelease.FULL_SWIPE, resolveLeft(WIDTH, 0));
+	}
+
+	@Test
+	public void fullSwipeWinsOverAFlingBack()
+	{
+		assertEquals(SwipeRelease.FULL_SWIPE, resolveRight(-WIDTH, MIN_FLING_VELOCITY * 2));
+		assertEquals(SwipeRelease.FULL_SWIPE, resolveLeft(WIDTH, -MIN_FLING_VELOCITY * 2));
+	}
+
+	/**
+	 * @param offset how far the main view moved from its closed position, negative towards the left.
+	 */
+	private static int resolveRight(int offset, float xvel)
+	{
+		return SwipeRelease.resolve(SwipeableLayout.DragEdge.RIGHT, offset, offset + WIDTH, xvel, MIN_FLING_VELOCITY,
+				FULL_SWIPE_OFFSET, WIDTH - PIVOT_OFFSET);
+	}
+
+	private static int resolveLeft(int offset, float xvel)
+	{
+		return SwipeRelease.resolve(SwipeableLayout.DragEdge.LEFT, offset, offset + WIDTH, xvel, MIN_FLING_VELOCITY,
+				FULL_SWIPE_OFFSET, PIVOT_OFFSET);
+	}
+}
@@ -0,0 +1,103 @@
+package com.ashishdas.example.swipeableitem.layout;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * State table and eviction of {@link SwipeableLayoutBinderHelper}, without bound layouts. Closing a row
+ * shrinks the retained count only when its state was still retained, which tells evicted rows apart.
+ */
+public class SwipeableLayoutBinderHelperTest
+{
+	private SwipeableLayoutBinderHelper helper;
+
+	@Before
+	public void setUp()
+	{
+		helper = new SwipeableLayoutBinderHelper();
+	}
+
+	@Test
+	public void closedRowsAreNotRetained()
+	{
+		helper.openLayout(5);
+		helper.openLayout(6);
+		assertEquals(2, helper.getRetainedStateCount());
+
+		helper.closeLayout(5);
+		helper.closeLayouts(6, 7);
+		assertEquals(0, helper.getRetainedStateCount());
+	}
+
+	@Test
+	public void retentionStaysBounded()
+	{
+		helper.setMaxRetainedStates(8);
+
+		for (long id = 0; id < 100; id++)
+		{
+			helper.openLayout(id);
+			assertTrue(helper.getRetainedStateCount() <= 8);
+		}
+
+		assertEquals(100, helper.getRetainedStateCount() + helper.getEvictedStateCount());
+		assertTrue(helper.getPeakRetainedStateCount() <= 9);
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedDownToThreeQuarters()
+	{
+		helper.setMaxRetainedStates(8);
+		helper.openLayoutRange(0, 8);
+
+		// refresh row 0, rows 1, 2 and 3 are now the oldest
+		helper.openLayout(0);
+		helper.openLayout(8);
+
+		assertEquals(6, helper.getRetainedStateCount());
+		assertEquals(3, helper.getEvictedStateCount());
+
+		assertRetained(0, true);
+		assertRetained(1, false);
+		assertRetained(3, false);
+		assertRetained(4, true);
+		assertRetained(8, true);
+	}
+
+	@Test
+	public void loweringTheLimitEvictsRightAway()
+	{
+		helper.openLayoutRange(0, 20);
+		assertEquals(20, helper.getRetainedStateCount());
+
+		helper.setMaxRetainedStates(8);
+
+		assertEquals(6, helper.getRetainedStateCount());
+		assertEquals(14, helper.getEvictedStateCount());
+		assertRetained(19, true);
+		assertRetained(13, false);
+	}
+
+	@Test
+	public void stringIdsShareTheTable()
+	{
+		helper.openLayouts("a", "b", "c");
+		assertEquals(3, helper.getRetainedStateCount());
+
+		helper.closeLayout("b");
+		assertEquals(2, helper.getRetainedStateCount());
+
+		helper.closeAll();
+		assertEquals(0, helper.getRetainedStateCount());
+	}
+
+	private void assertRetained(long id, boolean retained)
+	{
+		final int before = helper.getRetainedStateCount();
+		helper.closeLayout(id);
+		assertEquals("row " + id, retained ? before - 1 : before, helper.getRetainedStateCount());
+	}
+}